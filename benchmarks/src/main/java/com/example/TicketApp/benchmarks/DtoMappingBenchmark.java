@@ -0,0 +1,102 @@
+package com.example.TicketApp.benchmarks;
+
+import com.example.TicketApp.DTO.SimpleTicketDTO;
+import com.example.TicketApp.DTO.TicketDTO;
+import com.example.TicketApp.DTO.TicketResponseDTO;
+import com.example.TicketApp.controller.ResponseEnvelopes;
+import com.example.TicketApp.entity.Ticket;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DTO mapping and response envelope construction for a page of tickets or replies. The mapping benchmarks make the
+ * constructor calls Hibernate makes for each selected row, and {@link TicketDTO#of} as TicketService calls it. The
+ * envelope benchmarks call {@link ResponseEnvelopes}, which the controllers use. Inputs are built once per trial,
+ * so only the mapping or envelope is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private List<Object[]> ticketRows;
+    private List<Object[]> replyRows;
+    private Ticket ticketEntity;
+    private Page<SimpleTicketDTO> ticketPage;
+    private List<TicketResponseDTO> replies;
+    private TicketDTO ticket;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(7);
+        ticketRows = Payloads.simpleTicketRows(random, size);
+        replyRows = Payloads.replyRows(random, 42L, size);
+        ticketEntity = Payloads.ticketEntity(random);
+        ticketPage = new PageImpl<>(Payloads.simpleTickets(random, size), PageRequest.of(0, size), 100L * size);
+        replies = Payloads.replies(random, 42L, size);
+        ticket = Payloads.ticket(random, size);
+    }
+
+    @Benchmark
+    public List<SimpleTicketDTO> mapSimpleTickets() {
+        List<SimpleTicketDTO> tickets = new ArrayList<>(ticketRows.size());
+        for (Object[] row : ticketRows) {
+            tickets.add(Payloads.simpleTicket(row));
+        }
+        return tickets;
+    }
+
+    @Benchmark
+    public List<TicketResponseDTO> mapReplies() {
+        List<TicketResponseDTO> replies = new ArrayList<>(replyRows.size());
+        for (Object[] row : replyRows) {
+            replies.add(Payloads.reply(row));
+        }
+        return replies;
+    }
+
+    // The ticket view: its reply page mapped row by row, then the ticket itself
+    @Benchmark
+    public TicketDTO mapTicket() {
+        return TicketDTO.of(ticketEntity, mapReplies());
+    }
+
+    @Benchmark
+    public Map<String, Object> searchEnvelope() {
+        return ResponseEnvelopes.tickets(ticketPage, size);
+    }
+
+    @Benchmark
+    public Map<String, Object> repliesEnvelope() {
+        return ResponseEnvelopes.replies(replies);
+    }
+
+    @Benchmark
+    public Map<String, Object> ticketEnvelope() {
+        return ResponseEnvelopes.ticket(ticket, size);
+    }
+}
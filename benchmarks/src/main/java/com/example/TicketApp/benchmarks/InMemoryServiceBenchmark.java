@@ -0,0 +1,88 @@
+package com.example.TicketApp.benchmarks;
+
+import com.example.TicketApp.entity.User;
+import com.example.TicketApp.services.AgentAssignmentPool;
+import com.example.TicketApp.services.KeysetCursor;
+import com.example.TicketApp.services.TicketAccessService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service paths that stay in memory: agent assignment, cached permission checks and cursor handling.
+ * Runs with several threads because the pool and the access cache are shared across requests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class InMemoryServiceBenchmark {
+
+    private static final int TICKETS = 100_000;
+
+    @Param({"10", "200"})
+    private int agents;
+
+    private AgentAssignmentPool agentPool;
+    private TicketAccessService accessService;
+    private String cursor;
+
+    @Setup
+    public void setUp() {
+        // No repositories: only the in-memory paths are exercised
+        agentPool = new AgentAssignmentPool(null, null);
+        for (long id = 1; id <= agents; id++) {
+            User agent = new User();
+            agent.setUserId(id);
+            agent.setEmail("agent" + id + "@example.com");
+            agent.setRole(User.Role.AGENT);
+            agentPool.registerAgent(agent);
+        }
+
+        accessService = new TicketAccessService(null, TICKETS);
+        for (long ticketId = 0; ticketId < TICKETS; ticketId++) {
+            accessService.register(ticketId, 1_000 + ticketId % 5_000, 1 + ticketId % agents);
+        }
+
+        cursor = new KeysetCursor(LocalDateTime.now(), 123456L).encode();
+    }
+
+    @Benchmark
+    public long assignAndRelease() {
+        long agentId = agentPool.assign();
+        agentPool.release(agentId);
+        return agentId;
+    }
+
+    @Benchmark
+    public boolean participantCheck() {
+        long ticketId = ThreadLocalRandom.current().nextLong(TICKETS);
+        return accessService.isParticipant(1_000 + ticketId % 5_000, ticketId);
+    }
+
+    @Benchmark
+    public KeysetCursor decodeCursor() {
+        return KeysetCursor.decode(cursor);
+    }
+
+    @Benchmark
+    public String encodeCursor() {
+        return new KeysetCursor(LocalDateTime.now(), 123456L).encode();
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.TicketApp.benchmarks;
+
+import com.example.TicketApp.DTO.SimpleTicketDTO;
+import com.example.TicketApp.DTO.TicketDTO;
+import com.example.TicketApp.DTO.TicketResponseDTO;
+import com.example.TicketApp.entity.Ticket;
+import com.example.TicketApp.entity.TicketResponse;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Builds projection rows and DTOs the way the repositories do, with production-like text sizes.
+ */
+final class Payloads {
+
+    private static final String WORDS = "booking refund seat flight delayed cancelled payment card charged twice " +
+            "baggage lost hotel reservation change date passenger name invoice please help urgent agent";
+
+    private Payloads() {
+    }
+
+    static String text(Random random, int length) {
+        String[] words = WORDS.split(" ");
+        StringBuilder builder = new StringBuilder(length + 16);
+        while (builder.length() < length) {
+            builder.append(words[random.nextInt(words.length)]).append(' ');
+        }
+        return builder.substring(0, length);
+    }
+
+    // Rows as the JPQL projection in TicketRepository selects them, in SimpleTicketDTO constructor order
+    static List<Object[]> simpleTicketRows(Random random, int count) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[]{(long) i, text(random, 160),
+                    random.nextBoolean() ? Ticket.Status.ACTIVE : Ticket.Status.RESOLVED,
+                    random.nextBoolean() ? Ticket.Category.PREBOOKING : Ticket.Category.POSTBOOKING,
+                    now.minusMinutes(i), now.minusMinutes(i / 2), "agent" + (i % 50) + "@example.com",
+                    "customer" + i + "@example.com"});
+        }
+        return rows;
+    }
+
+    // Same constructor call the projection makes for each row
+    static SimpleTicketDTO simpleTicket(Object[] row) {
+        return new SimpleTicketDTO((Long) row[0], (String) row[1], (Ticket.Status) row[2], (Ticket.Category) row[3],
+                (LocalDateTime) row[4], (LocalDateTime) row[5], (String) row[6], (String) row[7]);
+    }
+
+    static List<SimpleTicketDTO> simpleTickets(Random random, int count) {
+        List<SimpleTicketDTO> tickets = new ArrayList<>(count);
+        for (Object[] row : simpleTicketRows(random, count)) {
+            tickets.add(simpleTicket(row));
+        }
+        return tickets;
+    }
+
+    // Rows as the JPQL projection in TicketResponseRepository selects them, in TicketResponseDTO constructor order
+    static List<Object[]> replyRows(Random random, long ticketId, int count) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            boolean agent = i % 2 == 1;
+            rows.add(new Object[]{(long) i, ticketId, text(random, 240),
+                    agent ? TicketResponse.Role.AGENT : TicketResponse.Role.CUSTOMER,
+                    agent ? "agent7@example.com" : "customer42@example.com", "agent7@example.com",
+                    now.minusMinutes(count - i)});
+        }
+        return rows;
+    }
+
+    // Same constructor call the projection makes for each row
+    static TicketResponseDTO reply(Object[] row) {
+        return new TicketResponseDTO((Long) row[0], (Long) row[1], (String) row[2], (TicketResponse.Role) row[3],
+                (String) row[4], (String) row[5], (LocalDateTime) row[6]);
+    }
+
+    static List<TicketResponseDTO> replies(Random random, long ticketId, int count) {
+        List<TicketResponseDTO> replies = new ArrayList<>(count);
+        for (Object[] row : replyRows(random, ticketId, count)) {
+            replies.add(reply(row));
+        }
+        return replies;
+    }
+
+    // The ticket row as TicketService reads it before mapping
+    static Ticket ticketEntity(Random random) {
+        LocalDateTime now = LocalDateTime.now();
+        Ticket ticket = new Ticket();
+        ticket.setTicketId(42L);
+        ticket.setDescription(text(random, 160));
+        ticket.setStatus(Ticket.Status.ACTIVE);
+        ticket.setCategory(Ticket.Category.POSTBOOKING);
+        ticket.setCreatedAt(now.minusDays(2));
+        ticket.setUpdatedAt(now);
+        return ticket;
+    }
+
+    static TicketDTO ticket(Random random, int replyCount) {
+        return TicketDTO.of(ticketEntity(random), replies(random, 42L, replyCount));
+    }
+}
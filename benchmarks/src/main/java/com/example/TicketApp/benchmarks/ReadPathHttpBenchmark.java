@@ -0,0 +1,106 @@
+package com.example.TicketApp.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Servlet (TicketApp, port 8080) against reactive (reactive-api, port 8081) on the read endpoints both serve,
+ * over HTTP with many concurrent clients. Both apps must be running against the same database first; pick the
+ * users and ticket with -p, for example:
+ * <pre>
+ * java -jar target/benchmarks.jar ReadPathHttpBenchmark -t 128 -p agentId=42 -p customerId=7 -p ticketId=1001
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@Threads(64)
+public class ReadPathHttpBenchmark {
+
+    @Param({"servlet", "reactive"})
+    private String stack;
+
+    @Param({"http://localhost:8080"})
+    private String servletUrl;
+
+    @Param({"http://localhost:8081"})
+    private String reactiveUrl;
+
+    @Param({"2"})
+    private long agentId;
+
+    @Param({"1"})
+    private long customerId;
+
+    @Param({"1"})
+    private long ticketId;
+
+    private String baseUrl;
+
+    @Setup
+    public void setUp() throws IOException {
+        baseUrl = "servlet".equals(stack) ? servletUrl : reactiveUrl;
+        // Fail fast instead of measuring connection errors
+        int status = get("/ticket/count/search?userId=" + agentId + "&role=AGENT&category=ALL");
+        if (status != 200) {
+            throw new IllegalStateException(baseUrl + " answered " + status + "; is the " + stack + " app running?");
+        }
+    }
+
+    @Benchmark
+    public int inboxPage() throws IOException {
+        return get("/ticket/search?userId=" + agentId + "&role=AGENT&status=ALL&category=ALL&page=0&size=10");
+    }
+
+    @Benchmark
+    public int ticketCounts() throws IOException {
+        return get("/ticket/count/search?userId=" + agentId + "&role=AGENT&category=ALL");
+    }
+
+    @Benchmark
+    public int ticketWithReplyPage() throws IOException {
+        return get("/ticket/search/" + customerId + "/" + ticketId + "?page=0&size=10");
+    }
+
+    @Benchmark
+    public int replyThread() throws IOException {
+        return get("/ticket/" + ticketId + "/response?userId=" + customerId);
+    }
+
+    // Reads the whole body so the connection goes back to the keep-alive cache
+    private int get(String path) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+        connection.setConnectTimeout(5000);
+        connection.setReadTimeout(30000);
+        int status = connection.getResponseCode();
+        InputStream body = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+        if (body != null) {
+            byte[] buffer = new byte[8192];
+            try (InputStream in = body) {
+                while (in.read(buffer) != -1) {
+                    // drain
+                }
+            }
+        }
+        return status;
+    }
+}
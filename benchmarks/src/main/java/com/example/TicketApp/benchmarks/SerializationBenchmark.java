@@ -0,0 +1,72 @@
+package com.example.TicketApp.benchmarks;
+
+import com.example.TicketApp.controller.ResponseEnvelopes;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the read endpoints' response bodies, built by {@link ResponseEnvelopes} as the
+ * controllers build them, with the ObjectMapper set up as Spring Boot does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private Map<String, Object> searchEnvelope;
+    private Map<String, Object> repliesEnvelope;
+    private Map<String, Object> ticketEnvelope;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        Random random = new Random(7);
+        searchEnvelope = ResponseEnvelopes.tickets(
+                new PageImpl<>(Payloads.simpleTickets(random, size), PageRequest.of(0, size), 100L * size), size);
+        repliesEnvelope = ResponseEnvelopes.replies(Payloads.replies(random, 42L, size));
+        ticketEnvelope = ResponseEnvelopes.ticket(Payloads.ticket(random, size), size);
+    }
+
+    @Benchmark
+    public byte[] serializeTicketSearch() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(searchEnvelope);
+    }
+
+    @Benchmark
+    public byte[] serializeReplyThread() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(repliesEnvelope);
+    }
+
+    @Benchmark
+    public byte[] serializeTicketWithReplies() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(ticketEnvelope);
+    }
+}
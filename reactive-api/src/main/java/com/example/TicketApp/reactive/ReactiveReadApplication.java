@@ -0,0 +1,12 @@
+package com.example.TicketApp.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class ReactiveReadApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(ReactiveReadApplication.class, args);
+    }
+}
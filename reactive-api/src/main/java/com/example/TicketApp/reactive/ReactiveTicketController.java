@@ -0,0 +1,166 @@
+package com.example.TicketApp.reactive;
+
+import com.example.TicketApp.DTO.SimpleTicketDTO;
+import com.example.TicketApp.DTO.TicketResponseDTO;
+import com.example.TicketApp.constants.ControllerConstants;
+import com.example.TicketApp.customErrors.InvalidRequestException;
+import com.example.TicketApp.customErrors.UserNotFoundException;
+import com.example.TicketApp.services.KeysetCursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Same paths and response envelopes as the servlet TicketController read endpoints, plus NDJSON streams under
+ * {@code /ticket/stream} that emit rows as the client consumes them.
+ */
+@RestController
+@CrossOrigin("http://localhost:3000")
+@RequestMapping("/ticket")
+public class ReactiveTicketController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveTicketController.class);
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final ReactiveTicketService ticketService;
+
+    @Autowired
+    public ReactiveTicketController(ReactiveTicketService ticketService) {
+        this.ticketService = ticketService;
+    }
+
+    @GetMapping("/search")
+    public Mono<ResponseEntity<Map<String, Object>>> searchTickets(
+            @RequestParam long userId,
+            @RequestParam String role,
+            @RequestParam String status,
+            @RequestParam String category,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor) {
+
+        return Mono.defer(() -> {
+            TicketFilter filter = TicketFilter.of(userId, role, status, category);
+            Map<String, Object> response = new HashMap<>();
+            Mono<List<SimpleTicketDTO>> tickets;
+            if (cursor != null && !cursor.isEmpty()) {
+                // Keyset mode: no offset scan and no count query
+                tickets = ticketService.getFilteredTicketsAfter(filter, cursor, size);
+            } else {
+                tickets = ticketService.getFilteredTickets(filter, page, size).map(paginatedTickets -> {
+                    response.put("totalElements", paginatedTickets.getTotalElements());
+                    response.put("totalPages", paginatedTickets.getTotalPages());
+                    return paginatedTickets.getTickets();
+                });
+            }
+            return tickets.map(list -> {
+                response.put("status", ControllerConstants.STATUS_SUCCESS);
+                response.put("data", Collections.singletonMap("tickets", list));
+                if (list.size() == size) {
+                    SimpleTicketDTO last = list.get(list.size() - 1);
+                    response.put("nextCursor", new KeysetCursor(last.getCreatedAt(), last.getTicketId()).encode());
+                }
+                return ResponseEntity.ok(response);
+            });
+        }).onErrorResume(e -> Mono.just(error(e, "Error fetching tickets")));
+    }
+
+    @GetMapping(value = "/stream/search", produces = NDJSON)
+    public Flux<SimpleTicketDTO> streamTickets(
+            @RequestParam long userId,
+            @RequestParam String role,
+            @RequestParam(defaultValue = "ALL") String status,
+            @RequestParam(defaultValue = "ALL") String category,
+            @RequestParam(required = false) String cursor) {
+        return Flux.defer(() -> ticketService.streamTickets(TicketFilter.of(userId, role, status, category), cursor));
+    }
+
+    @GetMapping("/search/{userId}/{ticketId}")
+    public Mono<ResponseEntity<Map<String, Object>>> searchTicket(
+            @PathVariable long userId,
+            @PathVariable long ticketId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor) {
+
+        return Mono.defer(() -> ticketService.searchTicket(userId, ticketId, page, size, cursor))
+                .map(ticketDTO -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("status", ControllerConstants.STATUS_SUCCESS);
+                    response.put("data", ticketDTO);
+                    List<TicketResponseDTO> replies = ticketDTO.getResponses();
+                    if (size > 0 && replies.size() == size) {
+                        TicketResponseDTO last = replies.get(replies.size() - 1);
+                        response.put("nextCursor", new KeysetCursor(last.getResponseTime(), last.getResponseId()).encode());
+                    }
+                    return ResponseEntity.ok(response);
+                })
+                .onErrorResume(e -> Mono.just(error(e, "Error fetching ticket")));
+    }
+
+    @GetMapping("/count/search")
+    public Mono<ResponseEntity<Map<String, Object>>> getTicketCount(@RequestParam long userId,
+                                                                    @RequestParam String role,
+                                                                    @RequestParam String category) {
+        return Mono.defer(() -> ticketService.getCountActiveResolved(userId, role, category))
+                .map(count -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("status", ControllerConstants.STATUS_SUCCESS);
+                    response.put("data", count);
+                    return ResponseEntity.ok(response);
+                })
+                .onErrorResume(e -> Mono.just(error(e, "Error fetching ticket counts")));
+    }
+
+    @GetMapping("/{ticket-id}/response")
+    public Mono<ResponseEntity<Map<String, Object>>> getAllTicketResponses(@PathVariable("ticket-id") long ticketId,
+                                                                           @RequestParam long userId) {
+        return ticketService.getAllTicketResponses(ticketId)
+                .collectList()
+                .map(replies -> {
+                    Map<String, Object> response = new HashMap<>();
+                    if (replies.isEmpty()) {
+                        response.put("status", ControllerConstants.STATUS_ERROR);
+                        response.put("message", "Ticket not found");
+                        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+                    }
+                    response.put("status", ControllerConstants.STATUS_SUCCESS);
+                    response.put("message", ControllerConstants.MESSAGE_REPLIES_FETCHED);
+                    response.put("data", Collections.singletonMap("replies", replies));
+                    return ResponseEntity.ok(response);
+                })
+                .onErrorResume(e -> Mono.just(error(e, "Error fetching ticket responses")));
+    }
+
+    @GetMapping(value = "/stream/{ticket-id}/response", produces = NDJSON)
+    public Flux<TicketResponseDTO> streamTicketResponses(@PathVariable("ticket-id") long ticketId,
+                                                         @RequestParam long userId) {
+        return ticketService.getAllTicketResponses(ticketId);
+    }
+
+    // Status codes as in TicketController: 404 unknown user, 400 bad input, 500 otherwise
+    private ResponseEntity<Map<String, Object>> error(Throwable e, String context) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", ControllerConstants.STATUS_ERROR);
+        if (e instanceof UserNotFoundException) {
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        } else if (e instanceof InvalidRequestException) {
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        }
+        logger.error("{}: {}", context, e.getMessage());
+        response.put("message", "Internal server error");
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+    }
+}
@@ -0,0 +1,240 @@
+package com.example.TicketApp.reactive;
+
+import com.example.TicketApp.DTO.SimpleTicketDTO;
+import com.example.TicketApp.DTO.TicketResponseDTO;
+import com.example.TicketApp.services.KeysetCursor;
+import io.r2dbc.spi.Row;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * SQL twins of the TicketRepository and TicketResponseRepository queries the servlet read endpoints use, with the
+ * same filters and ordering so both stacks hit the same indexes and return the same rows.
+ */
+@Repository
+public class ReactiveTicketRepository {
+
+    private static final String SIMPLE_TICKET_SELECT = "SELECT t.ticket_id, t.description, t.status, t.category, " +
+            "t.created_at, t.updated_at, a.email AS agent_email, c.email AS customer_email " +
+            "FROM tickets t JOIN users c ON c.user_id = t.customer_id LEFT JOIN users a ON a.user_id = t.agent_id ";
+
+    private static final String STATUS_CATEGORY_FILTER = "AND t.status IN (:statuses) AND t.category IN (:categories) ";
+
+    private static final String KEYSET_AFTER =
+            "AND (t.created_at < :createdAt OR (t.created_at = :createdAt AND t.ticket_id < :ticketId)) ";
+
+    private static final String NEWEST_FIRST = "ORDER BY t.created_at DESC, t.ticket_id DESC ";
+
+    // searchTicket pages: agent email falls back to the customer's, as in TicketResponseRepository.THREAD_SELECT
+    private static final String THREAD_SELECT = "SELECT tr.response_id, t.ticket_id, tr.response_text, tr.role, " +
+            "u.email AS user_email, COALESCE(a.email, c.email) AS agent_email, tr.created_at " +
+            "FROM ticket_responses tr JOIN tickets t ON t.ticket_id = tr.ticket_id JOIN users u ON u.user_id = tr.user_id " +
+            "JOIN users c ON c.user_id = t.customer_id LEFT JOIN users a ON a.user_id = t.agent_id " +
+            "WHERE t.ticket_id = :ticketId ";
+
+    // Whole threads, as in TicketResponseRepository.REPLY_SELECT
+    private static final String REPLY_SELECT = "SELECT tr.response_id, t.ticket_id, tr.response_text, tr.role, " +
+            "u.email AS user_email, a.email AS agent_email, tr.created_at " +
+            "FROM ticket_responses tr JOIN tickets t ON t.ticket_id = tr.ticket_id JOIN users u ON u.user_id = tr.user_id " +
+            "LEFT JOIN users a ON a.user_id = t.agent_id " +
+            "WHERE t.ticket_id = :ticketId ";
+
+    private static final String OLDEST_FIRST = "ORDER BY tr.created_at ASC, tr.response_id ASC ";
+
+    private final DatabaseClient databaseClient;
+    private final int fetchSize;
+
+    @Autowired
+    public ReactiveTicketRepository(DatabaseClient databaseClient,
+                                    @Value("${ticket.reactive.fetch-size:256}") int fetchSize) {
+        this.databaseClient = databaseClient;
+        this.fetchSize = fetchSize;
+    }
+
+    public Mono<Boolean> existsUser(long userId) {
+        return databaseClient.sql("SELECT 1 FROM users WHERE user_id = :userId")
+                .bind("userId", userId)
+                .map(row -> 1)
+                .first()
+                .hasElement();
+    }
+
+    // One page, newest first; limit is null when streaming
+    public Flux<SimpleTicketDTO> findTickets(TicketFilter filter, KeysetCursor after, Integer limit, long offset) {
+        String sql = SIMPLE_TICKET_SELECT + "WHERE " + filter.ownerColumn() + " = :userId " + STATUS_CATEGORY_FILTER
+                + (after != null ? KEYSET_AFTER : "") + NEWEST_FIRST
+                + (limit != null ? "LIMIT :limit OFFSET :offset" : "");
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql)
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .bind("userId", filter.getUserId())
+                .bind("statuses", filter.getStatuses())
+                .bind("categories", filter.getCategories());
+        if (after != null) {
+            spec = spec.bind("createdAt", after.getCreatedAt()).bind("ticketId", after.getId());
+        }
+        if (limit != null) {
+            spec = spec.bind("limit", limit).bind("offset", offset);
+        }
+        return spec.map(ReactiveTicketRepository::toSimpleTicket).all();
+    }
+
+    public Mono<Long> countTickets(TicketFilter filter) {
+        return databaseClient.sql("SELECT COUNT(*) AS total FROM tickets t WHERE " + filter.ownerColumn() + " = :userId "
+                        + STATUS_CATEGORY_FILTER)
+                .bind("userId", filter.getUserId())
+                .bind("statuses", filter.getStatuses())
+                .bind("categories", filter.getCategories())
+                .map(row -> row.get("total", Long.class))
+                .one();
+    }
+
+    // [status, count] per status, as in TicketRepository.count*TicketsByStatus
+    public Flux<StatusCount> countByStatus(long userId, boolean agent, Collection<String> categories) {
+        String ownerColumn = agent ? "t.agent_id" : "t.customer_id";
+        return databaseClient.sql("SELECT t.status, COUNT(*) AS total FROM tickets t WHERE " + ownerColumn + " = :userId " +
+                        "AND t.category IN (:categories) GROUP BY t.status")
+                .bind("userId", userId)
+                .bind("categories", categories)
+                .map(row -> new StatusCount(row.get("status", String.class), row.get("total", Long.class)))
+                .all();
+    }
+
+    // The ticket row together with its participants, in one primary-key lookup
+    public Mono<TicketRow> findTicket(long ticketId) {
+        return databaseClient.sql("SELECT ticket_id, description, status, category, created_at, updated_at, " +
+                        "customer_id, agent_id FROM tickets WHERE ticket_id = :ticketId")
+                .bind("ticketId", ticketId)
+                .map(row -> new TicketRow(
+                        row.get("ticket_id", Long.class),
+                        row.get("description", String.class),
+                        row.get("status", String.class),
+                        row.get("category", String.class),
+                        row.get("created_at", LocalDateTime.class),
+                        row.get("updated_at", LocalDateTime.class),
+                        row.get("customer_id", Long.class),
+                        row.get("agent_id", Long.class)))
+                .one();
+    }
+
+    public Flux<TicketResponseDTO> findThreadPage(long ticketId, KeysetCursor after, int limit, long offset) {
+        String sql = THREAD_SELECT
+                + (after != null ? "AND (tr.created_at > :createdAt OR (tr.created_at = :createdAt AND tr.response_id > :responseId)) " : "")
+                + OLDEST_FIRST + "LIMIT :limit OFFSET :offset";
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql)
+                .bind("ticketId", ticketId)
+                .bind("limit", limit)
+                .bind("offset", offset);
+        if (after != null) {
+            spec = spec.bind("createdAt", after.getCreatedAt()).bind("responseId", after.getId());
+        }
+        return spec.map(ReactiveTicketRepository::toReply).all();
+    }
+
+    public Flux<TicketResponseDTO> findThread(long ticketId) {
+        return databaseClient.sql(REPLY_SELECT + OLDEST_FIRST)
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .bind("ticketId", ticketId)
+                .map(ReactiveTicketRepository::toReply)
+                .all();
+    }
+
+    private static SimpleTicketDTO toSimpleTicket(Row row) {
+        return new SimpleTicketDTO(
+                row.get("ticket_id", Long.class),
+                row.get("description", String.class),
+                row.get("status", String.class),
+                row.get("category", String.class),
+                row.get("created_at", LocalDateTime.class),
+                row.get("updated_at", LocalDateTime.class),
+                row.get("agent_email", String.class),
+                row.get("customer_email", String.class));
+    }
+
+    private static TicketResponseDTO toReply(Row row) {
+        String role = row.get("role", String.class);
+        return new TicketResponseDTO(
+                row.get("response_id", Long.class),
+                row.get("ticket_id", Long.class),
+                row.get("response_text", String.class),
+                role != null ? role : "UNKNOWN",
+                row.get("user_email", String.class),
+                row.get("agent_email", String.class),
+                row.get("created_at", LocalDateTime.class));
+    }
+
+    public static final class StatusCount {
+        private final String status;
+        private final long count;
+
+        StatusCount(String status, Long count) {
+            this.status = status;
+            this.count = count != null ? count : 0;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public long getCount() {
+            return count;
+        }
+    }
+
+    public static final class TicketRow {
+        private final Long ticketId;
+        private final String description;
+        private final String status;
+        private final String category;
+        private final LocalDateTime createdAt;
+        private final LocalDateTime updatedAt;
+        private final Long customerId;
+        private final Long agentId;
+
+        TicketRow(Long ticketId, String description, String status, String category, LocalDateTime createdAt,
+                  LocalDateTime updatedAt, Long customerId, Long agentId) {
+            this.ticketId = ticketId;
+            this.description = description;
+            this.status = status;
+            this.category = category;
+            this.createdAt = createdAt;
+            this.updatedAt = updatedAt;
+            this.customerId = customerId;
+            this.agentId = agentId;
+        }
+
+        public boolean isParticipant(long userId) {
+            return (customerId != null && customerId == userId) || (agentId != null && agentId == userId);
+        }
+
+        public Long getTicketId() {
+            return ticketId;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public String getCategory() {
+            return category;
+        }
+
+        public LocalDateTime getCreatedAt() {
+            return createdAt;
+        }
+
+        public LocalDateTime getUpdatedAt() {
+            return updatedAt;
+        }
+    }
+}
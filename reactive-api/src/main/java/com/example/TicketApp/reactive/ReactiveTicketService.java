@@ -0,0 +1,144 @@
+package com.example.TicketApp.reactive;
+
+import com.example.TicketApp.DTO.SimpleTicketDTO;
+import com.example.TicketApp.DTO.TicketDTO;
+import com.example.TicketApp.DTO.TicketResponseDTO;
+import com.example.TicketApp.customErrors.InvalidRequestException;
+import com.example.TicketApp.customErrors.UserNotFoundException;
+import com.example.TicketApp.services.KeysetCursor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Non-blocking versions of the TicketService reads. Nothing here blocks a thread; each method describes the
+ * queries and the caller's subscription runs them.
+ */
+@Service
+public class ReactiveTicketService {
+
+    private final ReactiveTicketRepository repository;
+
+    @Autowired
+    public ReactiveTicketService(ReactiveTicketRepository repository) {
+        this.repository = repository;
+    }
+
+    // Offset page plus total, like TicketService.getFilteredTickets; the page and count queries run concurrently
+    public Mono<TicketPage> getFilteredTickets(TicketFilter filter, int page, int size) {
+        if (page < 0 || size < 1) {
+            return Mono.error(new InvalidRequestException("Page index must not be negative and size must be at least one."));
+        }
+        Mono<List<SimpleTicketDTO>> tickets = repository.findTickets(filter, null, size, (long) page * size).collectList();
+        return requireUser(filter.getUserId())
+                .then(Mono.zip(tickets, repository.countTickets(filter)))
+                .map(result -> new TicketPage(result.getT1(), result.getT2(), size));
+    }
+
+    // Keyset page, like TicketService.getFilteredTicketsAfter
+    public Mono<List<SimpleTicketDTO>> getFilteredTicketsAfter(TicketFilter filter, String cursor, int size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        return requireUser(filter.getUserId())
+                .thenMany(repository.findTickets(filter, after, size, 0))
+                .collectList();
+    }
+
+    // Every matching ticket from the cursor on, emitted as the subscriber requests them
+    public Flux<SimpleTicketDTO> streamTickets(TicketFilter filter, String cursor) {
+        KeysetCursor after = cursor != null && !cursor.isEmpty() ? KeysetCursor.decode(cursor) : null;
+        return requireUser(filter.getUserId())
+                .thenMany(repository.findTickets(filter, after, null, 0));
+    }
+
+    public Mono<Map<String, Long>> getCountActiveResolved(long userId, String role, String category) {
+        boolean agent = TicketFilter.parseRole(role);
+        List<String> categories = TicketFilter.parseCategories(category);
+        return repository.countByStatus(userId, agent, categories)
+                .collectMap(ReactiveTicketRepository.StatusCount::getStatus, ReactiveTicketRepository.StatusCount::getCount)
+                .map(counts -> {
+                    Map<String, Long> count = new HashMap<>();
+                    count.put("Active_tickets", counts.getOrDefault("ACTIVE", 0L));
+                    count.put("Resolved_tickets", counts.getOrDefault("RESOLVED", 0L));
+                    return count;
+                });
+    }
+
+    // The ticket row (with its participants) and the reply page are read concurrently
+    public Mono<TicketDTO> searchTicket(long userId, long ticketId, int page, int size, String cursor) {
+        KeysetCursor after = cursor != null && !cursor.isEmpty() ? KeysetCursor.decode(cursor) : null;
+        Mono<List<TicketResponseDTO>> replies = size <= 0 || (after == null && page < 0)
+                ? Mono.just(Collections.<TicketResponseDTO>emptyList())
+                : repository.findThreadPage(ticketId, after, size, after != null ? 0 : (long) page * size).collectList();
+
+        Mono<ReactiveTicketRepository.TicketRow> ticket = repository.findTicket(ticketId)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(row -> row.isPresent() && row.get().isParticipant(userId)
+                        ? Mono.just(row.get())
+                        : accessError(userId, ticketId, row.isPresent()));
+
+        return Mono.zip(ticket, replies)
+                .map(result -> {
+                    ReactiveTicketRepository.TicketRow row = result.getT1();
+                    return new TicketDTO(row.getTicketId(), row.getDescription(), row.getStatus(), row.getCategory(),
+                            row.getCreatedAt(), row.getUpdatedAt(), result.getT2());
+                });
+    }
+
+    public Flux<TicketResponseDTO> getAllTicketResponses(long ticketId) {
+        return repository.findThread(ticketId);
+    }
+
+    private Mono<Void> requireUser(long userId) {
+        return repository.existsUser(userId)
+                .flatMap(exists -> exists
+                        ? Mono.<Void>empty()
+                        : Mono.error(new UserNotFoundException("User  not found with ID: " + userId)));
+    }
+
+    // Same checks and messages as TicketService.checkAccess
+    private Mono<ReactiveTicketRepository.TicketRow> accessError(long userId, long ticketId, boolean ticketExists) {
+        return repository.existsUser(userId)
+                .flatMap(userExists -> {
+                    if (!userExists) {
+                        return Mono.error(new UserNotFoundException("User  not found with ID: " + userId));
+                    }
+                    if (!ticketExists) {
+                        return Mono.error(new IllegalArgumentException("Ticket not found with ID: " + ticketId));
+                    }
+                    return Mono.error(new InvalidRequestException(
+                            "User  ID " + userId + " is not authorized to view ticket ID " + ticketId));
+                });
+    }
+
+    public static final class TicketPage {
+        private final List<SimpleTicketDTO> tickets;
+        private final long totalElements;
+        private final int totalPages;
+
+        TicketPage(List<SimpleTicketDTO> tickets, long totalElements, int size) {
+            this.tickets = tickets;
+            this.totalElements = totalElements;
+            this.totalPages = (int) ((totalElements + size - 1) / size);
+        }
+
+        public List<SimpleTicketDTO> getTickets() {
+            return tickets;
+        }
+
+        public long getTotalElements() {
+            return totalElements;
+        }
+
+        public int getTotalPages() {
+            return totalPages;
+        }
+    }
+}
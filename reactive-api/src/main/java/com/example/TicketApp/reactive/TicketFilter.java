@@ -0,0 +1,86 @@
+package com.example.TicketApp.reactive;
+
+import com.example.TicketApp.customErrors.InvalidRequestException;
+import com.example.TicketApp.entity.Ticket;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Validated /ticket/search filter. Parses role, status and category the way TicketService does, with the same
+ * error messages.
+ */
+public final class TicketFilter {
+
+    private final long userId;
+    private final boolean agent;
+    private final List<String> statuses;
+    private final List<String> categories;
+
+    private TicketFilter(long userId, boolean agent, List<String> statuses, List<String> categories) {
+        this.userId = userId;
+        this.agent = agent;
+        this.statuses = statuses;
+        this.categories = categories;
+    }
+
+    public static TicketFilter of(long userId, String role, String status, String category) {
+        return new TicketFilter(userId, parseRole(role), parseStatuses(status), parseCategories(category));
+    }
+
+    static boolean parseRole(String role) {
+        if ("AGENT".equalsIgnoreCase(role)) {
+            return true;
+        } else if ("CUSTOMER".equalsIgnoreCase(role)) {
+            return false;
+        }
+        throw new IllegalArgumentException("Invalid role. Must be 'AGENT' or 'CUSTOMER'.");
+    }
+
+    static List<String> parseStatuses(String status) {
+        List<String> names = new ArrayList<>();
+        for (Ticket.Status value : Ticket.Status.values()) {
+            if ("ALL".equalsIgnoreCase(status) || value.name().equalsIgnoreCase(status)) {
+                names.add(value.name());
+            }
+        }
+        if (names.isEmpty()) {
+            throw new InvalidRequestException("Invalid status. Must be 'ALL', 'ACTIVE' or 'RESOLVED'.");
+        }
+        return Collections.unmodifiableList(names);
+    }
+
+    static List<String> parseCategories(String category) {
+        List<String> names = new ArrayList<>();
+        for (Ticket.Category value : Ticket.Category.values()) {
+            if ("ALL".equalsIgnoreCase(category) || value.name().equalsIgnoreCase(category)) {
+                names.add(value.name());
+            }
+        }
+        if (names.isEmpty()) {
+            throw new InvalidRequestException("Invalid category. Must be 'ALL', 'PREBOOKING' or 'POSTBOOKING'.");
+        }
+        return Collections.unmodifiableList(names);
+    }
+
+    String ownerColumn() {
+        return agent ? "t.agent_id" : "t.customer_id";
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public boolean isAgent() {
+        return agent;
+    }
+
+    public List<String> getStatuses() {
+        return statuses;
+    }
+
+    public List<String> getCategories() {
+        return categories;
+    }
+}
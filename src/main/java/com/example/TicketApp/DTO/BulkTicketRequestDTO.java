@@ -0,0 +1,14 @@
+package com.example.TicketApp.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTicketRequestDTO {
+    private Long userId;
+    private String category;
+    private String description;
+}
@@ -0,0 +1,13 @@
+package com.example.TicketApp.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class BulkTicketResultDTO {
+    private int index;        // Position of the item in the request
+    private Long ticketId;    // Null when the item failed
+    private String status;
+    private String message;
+}
@@ -0,0 +1,17 @@
+package com.example.TicketApp.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class FullTextHitDTO {
+    private String type;        // "ticket" or "reply"
+    private Long ticketId;
+    private Long responseId;    // Null for ticket hits
+    private float score;
+    private String text;        // Matched description or reply text, truncated
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,14 @@
+package com.example.TicketApp.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class PendingReplyDTO {
+    private String acceptedId;  // Handed back to the client before the row is written
+    private long ticketId;
+    private long userId;
+    private String role;
+    private String responseText;
+}
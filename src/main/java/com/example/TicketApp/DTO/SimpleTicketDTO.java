@@ -1,5 +1,6 @@
 package com.example.TicketApp.DTO;
 
+import com.example.TicketApp.entity.Ticket;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
@@ -16,4 +17,10 @@ public class SimpleTicketDTO {
     private LocalDateTime updatedAt;
     private String agentEmail; // Email of the agent (if assigned)
     private String userEmail;  // Email of the user (customer)
-}
\ No newline at end of file
+
+    // Used by JPQL constructor expressions in TicketRepository
+    public SimpleTicketDTO(Long ticketId, String description, Ticket.Status status, Ticket.Category category,
+                           LocalDateTime createdAt, LocalDateTime updatedAt, String agentEmail, String userEmail) {
+        this(ticketId, description, status.name(), category.name(), createdAt, updatedAt, agentEmail, userEmail);
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.TicketApp.DTO;
+
+import com.example.TicketApp.entity.TicketOutboxEvent;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * A committed ticket change as delivered by {@link com.example.TicketApp.services.TicketChangeFeed}. Delivery is
+ * at least once, so subscribers should treat a repeated {@code eventId} as already seen.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class TicketChangeEvent {
+    private final long eventId;
+    private final long ticketId;
+    private final TicketOutboxEvent.Type type;
+    private final Long responseId;  // reply events only
+    private final Long userId;      // who made the change
+    private final LocalDateTime occurredAt;
+
+    public static TicketChangeEvent of(TicketOutboxEvent row) {
+        return new TicketChangeEvent(row.getEventId(), row.getTicketId(), row.getChangeType(), row.getResponseId(),
+                row.getUserId(), row.getOccurredAt());
+    }
+}
@@ -17,4 +17,9 @@ public class TicketDTO {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private List<TicketResponseDTO> responses;  // List of associated responses
+
+    public static TicketDTO of(Ticket ticket, List<TicketResponseDTO> responses) {
+        return new TicketDTO(ticket.getTicketId(), ticket.getDescription(), ticket.getStatus().name(),
+                ticket.getCategory().name(), ticket.getCreatedAt(), ticket.getUpdatedAt(), responses);
+    }
 }
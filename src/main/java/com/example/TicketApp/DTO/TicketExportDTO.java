@@ -0,0 +1,19 @@
+package com.example.TicketApp.DTO;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+// One NDJSON line of GET /ticket/export
+@Data
+@AllArgsConstructor
+public class TicketExportDTO {
+    @JsonUnwrapped
+    private SimpleTicketDTO ticket;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<TicketResponseDTO> responses; // Null unless replies were requested
+}
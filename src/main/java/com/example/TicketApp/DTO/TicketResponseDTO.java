@@ -1,5 +1,7 @@
 package com.example.TicketApp.DTO;
 
+import com.example.TicketApp.entity.TicketResponse;
+
 import lombok.Builder;
 import lombok.NoArgsConstructor;
 
@@ -21,4 +23,11 @@ public class TicketResponseDTO {
     private String userEmail;
     private String agentEmail;  // Add agent's email
     private LocalDateTime responseTime;  // Add the missing response time field
+
+    // Used by JPQL constructor expressions in TicketResponseRepository
+    public TicketResponseDTO(Long responseId, Long ticketId, String responseText, TicketResponse.Role role,
+                             String userEmail, String agentEmail, LocalDateTime responseTime) {
+        this(responseId, ticketId, responseText, role != null ? role.toString() : "UNKNOWN",
+                userEmail, agentEmail, responseTime);
+    }
 }
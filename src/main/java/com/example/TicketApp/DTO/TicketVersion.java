@@ -0,0 +1,50 @@
+package com.example.TicketApp.DTO;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * What a ticket's JSON views depend on: the ticket row's last update, the newest reply update and the reply count
+ * (a deleted reply lowers the count without touching any timestamp). Equal versions render equal responses for
+ * the same request, so they double as HTTP validators.
+ */
+@Getter
+public class TicketVersion {
+    private final long ticketId;
+    private final LocalDateTime ticketUpdatedAt;
+    private final LocalDateTime lastReplyUpdatedAt;
+    private final long replyCount;
+
+    // Used by the JPQL constructor expression in TicketRepository.findVersion
+    public TicketVersion(Long ticketId, LocalDateTime ticketUpdatedAt, LocalDateTime lastReplyUpdatedAt, Long replyCount) {
+        this.ticketId = ticketId;
+        this.ticketUpdatedAt = ticketUpdatedAt;
+        this.lastReplyUpdatedAt = lastReplyUpdatedAt;
+        this.replyCount = replyCount;
+    }
+
+    public LocalDateTime getLastModified() {
+        if (lastReplyUpdatedAt != null && (ticketUpdatedAt == null || lastReplyUpdatedAt.isAfter(ticketUpdatedAt))) {
+            return lastReplyUpdatedAt;
+        }
+        return ticketUpdatedAt;
+    }
+
+    // Whole seconds, as HTTP dates carry no fraction; -1 if unknown
+    public long getLastModifiedMillis() {
+        LocalDateTime lastModified = getLastModified();
+        return lastModified == null ? -1
+                : lastModified.truncatedTo(ChronoUnit.SECONDS).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    public String getETag() {
+        return "W/\"" + ticketId + '-' + micros(ticketUpdatedAt) + '-' + micros(lastReplyUpdatedAt) + '-' + replyCount + '"';
+    }
+
+    private static long micros(LocalDateTime time) {
+        return time == null ? 0 : ChronoUnit.MICROS.between(LocalDateTime.of(2000, 1, 1, 0, 0), time);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.TicketApp.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * The executors that async controllers and streamed exports run their database work on. Together they have as many
+ * threads as the connection pool has connections, so queued requests wait here instead of holding a Tomcat worker
+ * while they wait for a connection. A full queue rejects new work, which the controllers answer with 503.
+ * <p>
+ * Exports stream for up to {@code ticket.export.timeout-ms}, so they get their own small executor without a queue:
+ * a burst of exports is turned away instead of taking every thread the read endpoints run on.
+ */
+@Configuration
+public class AsyncConfig {
+
+    public static final String DB_TASK_EXECUTOR = "dbTaskExecutor";
+    public static final String EXPORT_TASK_EXECUTOR = "exportTaskExecutor";
+
+    @Bean(name = DB_TASK_EXECUTOR)
+    public AsyncTaskExecutor dbTaskExecutor(@Value("${ticket.async.db-threads}") int threads,
+                                            @Value("${ticket.async.queue-capacity}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("db-");
+        executor.setTaskDecorator(task -> SqlStatementCounter.propagate(ReplicaRoutingContext.propagate(task)));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    @Bean(name = EXPORT_TASK_EXECUTOR)
+    public ThreadPoolTaskExecutor exportTaskExecutor(@Value("${ticket.export.threads}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("export-");
+        executor.setTaskDecorator(task -> SqlStatementCounter.propagate(ReplicaRoutingContext.propagate(task)));
+        return executor;
+    }
+}
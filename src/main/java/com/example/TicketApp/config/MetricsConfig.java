@@ -0,0 +1,27 @@
+package com.example.TicketApp.config;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.HibernateQueryMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Metrics beyond what Spring Boot binds on its own.
+ * <p>
+ * Boot already times every controller request ({@code http.server.requests}), every repository call
+ * ({@code spring.data.repository.invocations}) and publishes Hibernate session factory statistics, including
+ * second-level cache hits and misses per region. This adds one timer per HQL query string, so the slowest
+ * queries can be found from the scrape, and a timer around every service method via {@link ServiceMetricsAspect}.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder hibernateQueryMetrics(EntityManagerFactory entityManagerFactory) {
+        return new HibernateQueryMetrics(entityManagerFactory.unwrap(SessionFactory.class), "entityManagerFactory", Tags.empty());
+    }
+}
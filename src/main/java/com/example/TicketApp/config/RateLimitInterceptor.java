@@ -0,0 +1,184 @@
+package com.example.TicketApp.config;
+
+import com.example.TicketApp.constants.ControllerConstants;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token-bucket admission per client and route, ahead of any database work. A request must get a token from two
+ * buckets for its route pattern: one for its client address, and one for that address and its {@code userId}.
+ * Otherwise it gets a 429 with {@code Retry-After}. The {@code userId} parameter is not authenticated. Keying by
+ * address stops a caller from draining another user's bucket by naming them. The address bucket caps a caller that
+ * cycles through ids, and it is checked first, so an address that is over its limit creates no new buckets.
+ * Buckets unused for {@code ticket.rate-limit.idle-eviction-ms} are dropped.
+ * <p>
+ * Limits are {@code burst:refillPerSecond}, per user; an address gets {@code ticket.rate-limit.address-multiplier}
+ * times that, room for several users behind one address. {@code ticket.rate-limit.default} applies to every route
+ * without an entry in {@code ticket.rate-limit.routes}, a comma-separated list of
+ * {@code pattern=burst:refillPerSecond}. Rejections are counted in {@code ticketapp.ratelimit.throttled}, tagged by route.
+ */
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    public static final String THROTTLED_METRIC = "ticketapp.ratelimit.throttled";
+    public static final String BUCKETS_METRIC = "ticketapp.ratelimit.buckets";
+
+    private final boolean enabled;
+    private final Limit defaultLimit;
+    private final Map<String, Limit> routeLimits;
+    private final double addressMultiplier;
+    private final Ticker ticker;
+    private final Cache<String, TokenBucket> buckets;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> throttled = new ConcurrentHashMap<>();
+
+    @Autowired
+    public RateLimitInterceptor(@Value("${ticket.rate-limit.enabled:false}") boolean enabled,
+                                @Value("${ticket.rate-limit.default:60:30}") String defaultLimit,
+                                @Value("${ticket.rate-limit.routes:}") String routeLimits,
+                                @Value("${ticket.rate-limit.address-multiplier:4}") double addressMultiplier,
+                                @Value("${ticket.rate-limit.idle-eviction-ms:600000}") long idleEvictionMs,
+                                @Value("${ticket.rate-limit.max-buckets:100000}") long maxBuckets,
+                                ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this(enabled, defaultLimit, routeLimits, addressMultiplier, idleEvictionMs, maxBuckets, objectMapper,
+                meterRegistry, Ticker.systemTicker());
+    }
+
+    RateLimitInterceptor(boolean enabled, String defaultLimit, String routeLimits, double addressMultiplier,
+                         long idleEvictionMs, long maxBuckets, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                         Ticker ticker) {
+        if (addressMultiplier < 1) {
+            throw new IllegalArgumentException("ticket.rate-limit.address-multiplier must be at least 1, got "
+                    + addressMultiplier);
+        }
+        this.enabled = enabled;
+        this.defaultLimit = Limit.parse(defaultLimit);
+        this.routeLimits = parseRoutes(routeLimits);
+        this.addressMultiplier = addressMultiplier;
+        this.ticker = ticker;
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(idleEvictionMs, TimeUnit.MILLISECONDS)
+                .maximumSize(maxBuckets)
+                .ticker(ticker)
+                .build();
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder(BUCKETS_METRIC, buckets, Cache::estimatedSize).register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        // Async and error dispatches belong to a request that was already admitted
+        if (!enabled || request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+        String route = route(request);
+        Limit limit = routeLimits.getOrDefault(route, defaultLimit);
+        if (limit.isUnlimited()) {
+            return true;
+        }
+
+        long now = ticker.read();
+        String address = "addr:" + request.getRemoteAddr();
+        TokenBucket addressBucket = buckets.get(address + ' ' + route,
+                key -> new TokenBucket(limit.burst * addressMultiplier, limit.perSecond * addressMultiplier, now));
+        long waitNanos = addressBucket.tryTake(now);
+        if (waitNanos == 0) {
+            TokenBucket userBucket = buckets.get(address + ' ' + user(request) + ' ' + route,
+                    key -> new TokenBucket(limit.burst, limit.perSecond, now));
+            waitNanos = userBucket.tryTake(now);
+            if (waitNanos == 0) {
+                return true;
+            }
+            addressBucket.giveBack();
+        }
+
+        throttled.computeIfAbsent(route, r -> Counter.builder(THROTTLED_METRIC).tag("route", r).register(meterRegistry))
+                .increment();
+        long retryAfter = Math.max(1, Math.min(TimeUnit.HOURS.toSeconds(1), (long) Math.ceil(waitNanos / 1e9)));
+        Map<String, Object> body = new HashMap<>();
+        body.put("status", ControllerConstants.STATUS_ERROR);
+        body.put("message", "Too many requests, retry in " + retryAfter + "s");
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+        return false;
+    }
+
+    private static String route(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : request.getRequestURI();
+    }
+
+    // Requests without a userId share one user bucket per address
+    private static String user(HttpServletRequest request) {
+        Long userId = RequestUsers.userId(request);
+        return userId != null ? "user:" + userId : "user:-";
+    }
+
+    private static Map<String, Limit> parseRoutes(String value) {
+        Map<String, Limit> limits = new HashMap<>();
+        for (String entry : value.split(",")) {
+            if (entry.trim().isEmpty()) {
+                continue;
+            }
+            int separator = entry.lastIndexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("ticket.rate-limit.routes entry must be pattern=burst:refillPerSecond, got '" + entry + "'");
+            }
+            limits.put(entry.substring(0, separator).trim(), Limit.parse(entry.substring(separator + 1)));
+        }
+        return limits;
+    }
+
+    // burst <= 0 disables the limit
+    static final class Limit {
+        private final double burst;
+        private final double perSecond;
+
+        private Limit(double burst, double perSecond) {
+            this.burst = burst;
+            this.perSecond = perSecond;
+        }
+
+        static Limit parse(String value) {
+            String[] parts = value.trim().split(":");
+            try {
+                if (parts.length == 2) {
+                    return new Limit(Double.parseDouble(parts[0]), Double.parseDouble(parts[1]));
+                }
+            } catch (NumberFormatException e) {
+                // fall through
+            }
+            throw new IllegalArgumentException("Rate limit must be burst:refillPerSecond, got '" + value + "'");
+        }
+
+        boolean isUnlimited() {
+            return burst <= 0;
+        }
+    }
+}
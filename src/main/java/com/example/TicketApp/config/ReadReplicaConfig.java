@@ -0,0 +1,92 @@
+package com.example.TicketApp.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replaces Boot's single pool with a primary pool plus one read-only pool per {@code ticket.datasource.replica.urls}
+ * entry, behind a {@link ReplicaRoutingDataSource}. Without that property nothing here is created and every query
+ * goes to {@code spring.datasource.url}.
+ * <p>
+ * Each pool reports its own {@code hikaricp.*} metrics under its pool name ({@code primary}, {@code replica-1}, ...).
+ * Hibernate must not take a connection before the transaction is marked read-only, hence the lazy proxy and
+ * {@code hibernate.connection.handling_mode=DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "ticket.datasource.replica", name = "urls")
+public class ReadReplicaConfig {
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            DataSourceProperties properties,
+            Environment environment,
+            MeterRegistry meterRegistry,
+            @Value("${ticket.datasource.replica.urls}") List<String> urls,
+            @Value("${ticket.datasource.replica.username:${spring.datasource.username}}") String username,
+            @Value("${ticket.datasource.replica.password:${spring.datasource.password}}") String password,
+            @Value("${ticket.datasource.replica.maximum-pool-size:${spring.datasource.hikari.maximum-pool-size:10}}") int poolSize,
+            @Value("${ticket.datasource.replica.lag-query:" + ReplicaRoutingDataSource.POSTGRES_LAG_QUERY + "}") String lagQuery,
+            @Value("${ticket.datasource.replica.max-lag-ms:1000}") long maxLagMs) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName(ReplicaRoutingDataSource.PRIMARY);
+        primary.setMetricRegistry(meterRegistry);
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (i + 1));
+            replica.setJdbcUrl(urls.get(i).trim());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setMaximumPoolSize(poolSize);
+            replica.setReadOnly(true);
+            // A replica that is down must not stop startup; the health check keeps it out of rotation instead
+            replica.setInitializationFailTimeout(-1);
+            replica.setMetricRegistry(meterRegistry);
+            replicas.put(replica.getPoolName(), replica);
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, lagQuery, maxLagMs / 1000.0, meterRegistry);
+    }
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ScheduledExecutorService replicaHealthChecker(ReplicaRoutingDataSource routing,
+                                                         @Value("${ticket.datasource.replica.check-interval-ms:1000}") long intervalMs) {
+        ScheduledExecutorService checker = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("replica-check-"));
+        // Replicas take reads only after their first check, which runs off the startup thread
+        checker.scheduleWithFixedDelay(routing::checkReplicas, 0, intervalMs, TimeUnit.MILLISECONDS);
+        return checker;
+    }
+
+    // What JPA, Flyway and JdbcTemplate use; the SQL statement counter wraps this one and skips the routing bean
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routing) {
+        LazyConnectionDataSourceProxy lazy = new LazyConnectionDataSourceProxy();
+        lazy.setTargetDataSource(routing);
+        lazy.setDefaultAutoCommit(true);
+        lazy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return lazy;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.TicketApp.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Routes every read of a request to the primary when its {@code userId} (query parameter or path variable) wrote
+ * recently. See {@link ReadYourWritesTracker}.
+ */
+@Component
+public class ReadYourWritesInterceptor implements AsyncHandlerInterceptor {
+
+    private final ReadYourWritesTracker tracker;
+
+    @Autowired
+    public ReadYourWritesInterceptor(ReadYourWritesTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Long userId = RequestUsers.userId(request);
+        if (userId != null && tracker.wroteRecently(userId)) {
+            ReplicaRoutingContext.requirePrimary();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ReplicaRoutingContext.clear();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ReplicaRoutingContext.clear();
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.TicketApp.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers which users wrote in the last {@code ticket.datasource.replica.sticky-window-ms}. Their requests read
+ * from the primary until the window ends, so they never see a replica that has not caught up with their own write.
+ */
+@Component
+public class ReadYourWritesTracker {
+
+    private final Cache<Long, Boolean> recentWriters;
+
+    @Autowired
+    public ReadYourWritesTracker(@Value("${ticket.datasource.replica.sticky-window-ms:5000}") long windowMs,
+                                 @Value("${ticket.datasource.replica.sticky-max-users:100000}") long maxUsers) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(windowMs, TimeUnit.MILLISECONDS)
+                .maximumSize(maxUsers)
+                .build();
+    }
+
+    public void recordWrite(long userId) {
+        recentWriters.put(userId, Boolean.TRUE);
+    }
+
+    public boolean wroteRecently(long userId) {
+        return recentWriters.getIfPresent(userId) != null;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.TicketApp.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Per-thread override that keeps read-only transactions on the primary, for read-your-writes and for re-checking
+ * a miss. Work handed to an executor decorated with {@link #propagate(Runnable)} inherits the caller's setting.
+ */
+public final class ReplicaRoutingContext {
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private ReplicaRoutingContext() {
+    }
+
+    public static boolean isPrimaryRequired() {
+        return Boolean.TRUE.equals(PRIMARY_REQUIRED.get());
+    }
+
+    public static void requirePrimary() {
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+    }
+
+    public static void clear() {
+        PRIMARY_REQUIRED.remove();
+    }
+
+    public static <T> T onPrimary(Supplier<T> work) {
+        Boolean previous = PRIMARY_REQUIRED.get();
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    // TaskDecorator for executors: the task routes like the thread that submitted it
+    public static Runnable propagate(Runnable task) {
+        Boolean submitter = PRIMARY_REQUIRED.get();
+        return () -> {
+            Boolean previous = PRIMARY_REQUIRED.get();
+            restore(submitter);
+            try {
+                task.run();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    private static void restore(Boolean value) {
+        if (value == null) {
+            PRIMARY_REQUIRED.remove();
+        } else {
+            PRIMARY_REQUIRED.set(value);
+        }
+    }
+}
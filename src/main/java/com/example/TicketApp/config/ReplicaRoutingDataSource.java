@@ -0,0 +1,180 @@
+package com.example.TicketApp.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to a healthy replica, round robin, and everything else to the primary.
+ * <p>
+ * The route is picked when a connection is first needed, so the target must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}; otherwise the transaction manager asks
+ * for a connection before the read-only flag is set. A replica is healthy while its last check succeeded and its
+ * replay lag was at most the configured maximum. With no healthy replica, reads go to the primary.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    public static final String PRIMARY = "primary";
+    public static final String ROUTE_METRIC = "ticketapp.datasource.routes";
+    public static final String LAG_METRIC = "ticketapp.datasource.replica.lag";
+    public static final String HEALTHY_METRIC = "ticketapp.datasource.replica.healthy";
+
+    /**
+     * Replay lag in seconds on a PostgreSQL standby. A standby that has replayed everything it received reports
+     * 0 even when the primary has been idle for a while.
+     */
+    public static final String POSTGRES_LAG_QUERY = "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0 " +
+            "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final String lagQuery;
+    private final double maxLagSeconds;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> routeCounters = new ConcurrentHashMap<>();
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, String lagQuery,
+                                    double maxLagSeconds, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLagSeconds;
+        this.meterRegistry = meterRegistry;
+
+        List<Replica> list = new ArrayList<>();
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (Map.Entry<String, DataSource> entry : replicas.entrySet()) {
+            Replica replica = new Replica(entry.getKey(), entry.getValue());
+            list.add(replica);
+            targets.put(replica.key, replica.dataSource);
+            Gauge.builder(LAG_METRIC, replica, r -> r.lagSeconds).tag("replica", replica.key).baseUnit("seconds")
+                    .register(meterRegistry);
+            Gauge.builder(HEALTHY_METRIC, replica, r -> r.healthy ? 1 : 0).tag("replica", replica.key)
+                    .register(meterRegistry);
+        }
+        this.replicas = Collections.unmodifiableList(list);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return route(PRIMARY, "write");
+        }
+        if (ReplicaRoutingContext.isPrimaryRequired()) {
+            return route(PRIMARY, "read-your-writes");
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return route(replica.key, "read");
+            }
+        }
+        return route(PRIMARY, "no-healthy-replica");
+    }
+
+    private String route(String key, String reason) {
+        routeCounters.computeIfAbsent(key + '/' + reason, k -> Counter.builder(ROUTE_METRIC)
+                        .tag("route", key)
+                        .tag("reason", reason)
+                        .register(meterRegistry))
+                .increment();
+        return key;
+    }
+
+    /**
+     * Measures every replica's lag and updates its health. Called on a schedule by {@link ReadReplicaConfig}.
+     */
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean wasHealthy = replica.healthy;
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(2);
+                try (ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                    replica.lagSeconds = resultSet.next() ? resultSet.getDouble(1) : Double.MAX_VALUE;
+                }
+                replica.healthy = replica.lagSeconds <= maxLagSeconds;
+            } catch (SQLException | RuntimeException e) {
+                replica.lagSeconds = Double.NaN;
+                replica.healthy = false;
+                if (wasHealthy) {
+                    logger.warn("Replica {} failed its health check: {}", replica.key, e.getMessage());
+                }
+            }
+            if (wasHealthy && !replica.healthy && !Double.isNaN(replica.lagSeconds)) {
+                logger.warn("Replica {} is {}s behind, above the {}s limit; reads go elsewhere", replica.key,
+                        replica.lagSeconds, maxLagSeconds);
+            } else if (!wasHealthy && replica.healthy) {
+                logger.info("Replica {} is healthy again ({}s behind)", replica.key, replica.lagSeconds);
+            }
+        }
+    }
+
+    public boolean isHealthy(String key) {
+        for (Replica replica : replicas) {
+            if (replica.key.equals(key)) {
+                return replica.healthy;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Replica replica : replicas) {
+            closeQuietly(replica.dataSource);
+        }
+        closeQuietly(primary);
+    }
+
+    private void closeQuietly(DataSource dataSource) {
+        if (dataSource instanceof Closeable) {
+            try {
+                ((Closeable) dataSource).close();
+            } catch (IOException e) {
+                logger.warn("Failed to close data source: {}", e.getMessage());
+            }
+        }
+    }
+
+    // Starts unhealthy: no reads go to a replica before its first successful check
+    private static final class Replica {
+        private final String key;
+        private final DataSource dataSource;
+        private volatile boolean healthy;
+        private volatile double lagSeconds = Double.NaN;
+
+        private Replica(String key, DataSource dataSource) {
+            this.key = key;
+            this.dataSource = dataSource;
+        }
+    }
+}
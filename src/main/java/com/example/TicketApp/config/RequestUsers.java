@@ -0,0 +1,35 @@
+package com.example.TicketApp.config;
+
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Map;
+
+/**
+ * The {@code userId} a request acts for, from the query parameter or the {@code {userId}} path variable. Path
+ * variables are only known once the handler has been mapped, so call this from an interceptor, not a filter.
+ */
+final class RequestUsers {
+
+    private RequestUsers() {
+    }
+
+    static Long userId(HttpServletRequest request) {
+        String value = request.getParameter("userId");
+        if (value == null) {
+            Object variables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+            if (variables instanceof Map) {
+                Object variable = ((Map<?, ?>) variables).get("userId");
+                value = variable != null ? variable.toString() : null;
+            }
+        }
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.TicketApp.config;
+
+import com.example.TicketApp.services.TicketSearchIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rebuilds the full-text index from the database when the app is started with {@code --rebuild-search-index}.
+ */
+@Component
+public class SearchIndexRebuildRunner implements ApplicationRunner {
+
+    public static final String REBUILD_OPTION = "rebuild-search-index";
+
+    private final TicketSearchIndex ticketSearchIndex;
+
+    @Autowired
+    public SearchIndexRebuildRunner(TicketSearchIndex ticketSearchIndex) {
+        this.ticketSearchIndex = ticketSearchIndex;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (args.containsOption(REBUILD_OPTION)) {
+            ticketSearchIndex.rebuild();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.TicketApp.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times every public method of the beans in the services package as {@code ticketapp.service.invocations},
+ * tagged with class, method and the exception thrown, if any. The SQL statements each call issues are recorded
+ * as {@code ticketapp.service.sql.statements}, with a warning when a call goes over
+ * {@code sql.budget.per-service-method}.
+ */
+@Aspect
+@Component
+public class ServiceMetricsAspect {
+
+    public static final String METRIC_NAME = "ticketapp.service.invocations";
+    public static final String SQL_METRIC_NAME = "ticketapp.service.sql.statements";
+
+    private static final Logger logger = LoggerFactory.getLogger(ServiceMetricsAspect.class);
+
+    private final MeterRegistry meterRegistry;
+    private final boolean warn;
+    private final long sqlBudget;
+
+    @Autowired
+    public ServiceMetricsAspect(MeterRegistry meterRegistry,
+                                @Value("${sql.budget.warn:false}") boolean warn,
+                                @Value("${sql.budget.per-service-method:8}") long sqlBudget) {
+        this.meterRegistry = meterRegistry;
+        this.warn = warn;
+        this.sqlBudget = sqlBudget;
+    }
+
+    @Around("within(com.example.TicketApp.services..*) && execution(public * *(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        SqlStatementCounter.Counts before = SqlStatementCounter.snapshot();
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            String className = joinPoint.getSignature().getDeclaringType().getSimpleName();
+            String method = joinPoint.getSignature().getName();
+            sample.stop(Timer.builder(METRIC_NAME)
+                    .tag("class", className)
+                    .tag("method", method)
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+
+            SqlStatementCounter.Counts issued = SqlStatementCounter.snapshot().minus(before);
+            DistributionSummary.builder(SQL_METRIC_NAME)
+                    .tag("class", className)
+                    .tag("method", method)
+                    .register(meterRegistry)
+                    .record(issued.getTotal());
+            if (warn && issued.getTotal() > sqlBudget) {
+                logger.warn("{}.{} issued {}, budget is {}", className, method, issued, sqlBudget);
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.TicketApp.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Counts the SQL statements of each HTTP request and warns when a request goes over {@code sql.budget.per-request}.
+ * Statements issued on the DB executor for an async request count towards that request.
+ */
+@Component
+public class SqlStatementBudgetInterceptor implements AsyncHandlerInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlStatementBudgetInterceptor.class);
+    private static final String SCOPE_ATTRIBUTE = SqlStatementBudgetInterceptor.class.getName() + ".scope";
+
+    private final boolean warn;
+    private final long budget;
+
+    public SqlStatementBudgetInterceptor(@Value("${sql.budget.warn:false}") boolean warn,
+                                         @Value("${sql.budget.per-request:8}") long budget) {
+        this.warn = warn;
+        this.budget = budget;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Object scope = request.getAttribute(SCOPE_ATTRIBUTE);
+        if (scope instanceof SqlStatementCounter.Scope) {
+            // Async dispatch of a request that started earlier, possibly on another thread
+            ((SqlStatementCounter.Scope) scope).enter();
+        } else {
+            request.setAttribute(SCOPE_ATTRIBUTE, SqlStatementCounter.openScope());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Object scope = request.getAttribute(SCOPE_ATTRIBUTE);
+        if (scope instanceof SqlStatementCounter.Scope) {
+            ((SqlStatementCounter.Scope) scope).exit();
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object scope = request.getAttribute(SCOPE_ATTRIBUTE);
+        if (!(scope instanceof SqlStatementCounter.Scope)) {
+            return;
+        }
+        ((SqlStatementCounter.Scope) scope).exit();
+        SqlStatementCounter.Counts counts = ((SqlStatementCounter.Scope) scope).counts();
+        if (warn && counts.getTotal() > budget) {
+            logger.warn("{} {} issued {}, budget is {}", request.getMethod(), request.getRequestURI(), counts, budget);
+        }
+    }
+}
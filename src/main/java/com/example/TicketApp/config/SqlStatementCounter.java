@@ -0,0 +1,224 @@
+package com.example.TicketApp.config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count of SQL statements sent to the database, fed by the datasource proxy in
+ * {@link SqlStatementCountingPostProcessor}. A JDBC batch counts as one statement, because it is one round trip.
+ * <p>
+ * Each thread records into its own recorder. A {@link Scope} gives one HTTP request its own recorder, which can be
+ * entered on whichever thread handles the request and which also adds to the recorder it was opened under.
+ * Work handed to an executor decorated with {@link #propagate(Runnable)} records into the submitting thread's
+ * recorder. {@link #capture(Runnable)} also keeps the statements themselves, for tests that inspect real SQL.
+ */
+public final class SqlStatementCounter {
+
+    private static final int SELECT = 0;
+    private static final int INSERT = 1;
+    private static final int UPDATE = 2;
+    private static final int DELETE = 3;
+    private static final int OTHER = 4;
+
+    private static final ThreadLocal<Recorder> CURRENT = ThreadLocal.withInitial(() -> new Recorder(null));
+    // Statements kept while capture() runs on this thread; null otherwise
+    private static final ThreadLocal<List<Statement>> CAPTURED = new ThreadLocal<>();
+
+    private SqlStatementCounter() {
+    }
+
+    // Copy of the current recorder's counts; subtract two snapshots to count a section of work
+    public static Counts snapshot() {
+        return CURRENT.get().counts();
+    }
+
+    public static Scope openScope() {
+        Scope scope = new Scope(new Recorder(CURRENT.get()));
+        scope.enter();
+        return scope;
+    }
+
+    // TaskDecorator for executors: the task records into the recorder of the thread that submitted it
+    public static Runnable propagate(Runnable task) {
+        Recorder submitter = CURRENT.get();
+        return () -> {
+            Recorder previous = CURRENT.get();
+            CURRENT.set(submitter);
+            try {
+                task.run();
+            } finally {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    /**
+     * Runs {@code work} and returns the statements it sent on this thread, in order, each with the parameters of its
+     * first execution.
+     */
+    public static List<Statement> capture(Runnable work) {
+        List<Statement> previous = CAPTURED.get();
+        List<Statement> captured = new ArrayList<>();
+        CAPTURED.set(captured);
+        try {
+            work.run();
+        } finally {
+            CAPTURED.set(previous);
+        }
+        return captured;
+    }
+
+    static boolean isCapturing() {
+        return CAPTURED.get() != null;
+    }
+
+    static void captured(String sql, List<Object> parameters) {
+        List<Statement> captured = CAPTURED.get();
+        if (captured != null) {
+            captured.add(new Statement(sql, parameters));
+        }
+    }
+
+    static void record(String sql) {
+        String head = sql == null ? "" : sql.trim().toLowerCase();
+        if (head.startsWith("select") || head.startsWith("with")) {
+            CURRENT.get().add(SELECT);
+        } else if (head.startsWith("insert")) {
+            CURRENT.get().add(INSERT);
+        } else if (head.startsWith("update")) {
+            CURRENT.get().add(UPDATE);
+        } else if (head.startsWith("delete")) {
+            CURRENT.get().add(DELETE);
+        } else {
+            CURRENT.get().add(OTHER);
+        }
+    }
+
+    // Shared by every thread working for the same request, hence atomic
+    private static final class Recorder {
+        private final Recorder parent;
+        private final AtomicLongArray counts = new AtomicLongArray(5);
+
+        private Recorder(Recorder parent) {
+            this.parent = parent;
+        }
+
+        private void add(int kind) {
+            for (Recorder recorder = this; recorder != null; recorder = recorder.parent) {
+                recorder.counts.incrementAndGet(kind);
+            }
+        }
+
+        private Counts counts() {
+            Counts counts = new Counts();
+            counts.selects = this.counts.get(SELECT);
+            counts.inserts = this.counts.get(INSERT);
+            counts.updates = this.counts.get(UPDATE);
+            counts.deletes = this.counts.get(DELETE);
+            counts.others = this.counts.get(OTHER);
+            return counts;
+        }
+    }
+
+    /**
+     * A recorder of its own for one unit of work such as an HTTP request. {@link #enter()} and {@link #exit()}
+     * bracket each stretch of that work on a thread.
+     */
+    public static final class Scope {
+        private final Recorder recorder;
+        private Recorder previous;
+
+        private Scope(Recorder recorder) {
+            this.recorder = recorder;
+        }
+
+        public void enter() {
+            previous = CURRENT.get();
+            CURRENT.set(recorder);
+        }
+
+        public void exit() {
+            if (previous != null) {
+                CURRENT.set(previous);
+                previous = null;
+            }
+        }
+
+        public Counts counts() {
+            return recorder.counts();
+        }
+    }
+
+    public static final class Statement {
+        private final String sql;
+        private final List<Object> parameters;
+
+        private Statement(String sql, List<Object> parameters) {
+            this.sql = sql;
+            this.parameters = Collections.unmodifiableList(parameters);
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public List<Object> getParameters() {
+            return parameters;
+        }
+
+        @Override
+        public String toString() {
+            return sql + " " + parameters;
+        }
+    }
+
+    public static final class Counts {
+        private long selects;
+        private long inserts;
+        private long updates;
+        private long deletes;
+        private long others;
+
+        public long getSelects() {
+            return selects;
+        }
+
+        public long getInserts() {
+            return inserts;
+        }
+
+        public long getUpdates() {
+            return updates;
+        }
+
+        public long getDeletes() {
+            return deletes;
+        }
+
+        public long getOthers() {
+            return others;
+        }
+
+        public long getTotal() {
+            return selects + inserts + updates + deletes + others;
+        }
+
+        public Counts minus(Counts earlier) {
+            Counts delta = new Counts();
+            delta.selects = selects - earlier.selects;
+            delta.inserts = inserts - earlier.inserts;
+            delta.updates = updates - earlier.updates;
+            delta.deletes = deletes - earlier.deletes;
+            delta.others = others - earlier.others;
+            return delta;
+        }
+
+        @Override
+        public String toString() {
+            return getTotal() + " statements (" + selects + " select, " + inserts + " insert, " + updates + " update, " +
+                    deletes + " delete, " + others + " other)";
+        }
+    }
+}
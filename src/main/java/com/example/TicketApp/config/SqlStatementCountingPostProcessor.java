@@ -0,0 +1,70 @@
+package com.example.TicketApp.config;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Wraps every DataSource bean in a datasource-proxy that reports each executed statement to
+ * {@link SqlStatementCounter}. A routing DataSource is left alone: its statements are counted by the DataSource that
+ * wraps it.
+ */
+@Component
+public class SqlStatementCountingPostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource && !(bean instanceof ProxyDataSource) && !(bean instanceof AbstractRoutingDataSource)) {
+            return ProxyDataSourceBuilder.create((DataSource) bean)
+                    .name(beanName)
+                    .listener(new CountingListener())
+                    .build();
+        }
+        return bean;
+    }
+
+    private static final class CountingListener implements QueryExecutionListener {
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            if (!queryInfoList.isEmpty()) {
+                QueryInfo query = queryInfoList.get(0);
+                SqlStatementCounter.record(query.getQuery());
+                if (SqlStatementCounter.isCapturing()) {
+                    SqlStatementCounter.captured(query.getQuery(), firstParameters(query));
+                }
+            }
+        }
+
+        // Values bound by the first execution, by parameter index; empty for plain statements
+        private static List<Object> firstParameters(QueryInfo query) {
+            if (query.getParametersList().isEmpty()) {
+                return Collections.emptyList();
+            }
+            List<ParameterSetOperation> operations = new ArrayList<>(query.getParametersList().get(0));
+            operations.sort(Comparator.comparing(operation -> (Integer) operation.getArgs()[0]));
+            List<Object> values = new ArrayList<>(operations.size());
+            for (ParameterSetOperation operation : operations) {
+                // setNull(index, sqlType) carries the type where other setters carry the value
+                values.add(ParameterSetOperation.isSetNullParameterOperation(operation) ? null : operation.getArgs()[1]);
+            }
+            return values;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.TicketApp.config;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A token bucket that refills continuously. Takes are a compare-and-set on an immutable state, so concurrent
+ * requests for the same key never block each other.
+ */
+final class TokenBucket {
+
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final AtomicReference<State> state;
+
+    TokenBucket(double capacity, double refillPerSecond, long now) {
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerSecond / NANOS_PER_SECOND;
+        this.state = new AtomicReference<>(new State(capacity, now));
+    }
+
+    /**
+     * Takes one token if there is one.
+     *
+     * @return 0 when a token was taken, otherwise the nanoseconds until the next token is available
+     */
+    long tryTake(long now) {
+        while (true) {
+            State current = state.get();
+            double tokens = Math.min(capacity, current.tokens + Math.max(0, now - current.refilledAt) * tokensPerNano);
+            if (tokens < 1) {
+                return tokensPerNano > 0 ? (long) Math.ceil((1 - tokens) / tokensPerNano) : Long.MAX_VALUE;
+            }
+            if (state.compareAndSet(current, new State(tokens - 1, Math.max(now, current.refilledAt)))) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Returns a token taken by {@link #tryTake}, for a request another limit turned away after all.
+     */
+    void giveBack() {
+        while (true) {
+            State current = state.get();
+            if (state.compareAndSet(current, new State(Math.min(capacity, current.tokens + 1), current.refilledAt))) {
+                return;
+            }
+        }
+    }
+
+    private static final class State {
+        private final double tokens;
+        private final long refilledAt;
+
+        private State(double tokens, long refilledAt) {
+            this.tokens = tokens;
+            this.refilledAt = refilledAt;
+        }
+    }
+}
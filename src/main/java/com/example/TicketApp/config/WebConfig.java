@@ -1,6 +1,10 @@
 package com.example.TicketApp.config;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.format.FormatterRegistry;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.validation.Validator;
@@ -15,6 +19,25 @@ import java.util.List;
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    private final RateLimitInterceptor rateLimitInterceptor;
+    private final SqlStatementBudgetInterceptor sqlStatementBudgetInterceptor;
+    private final ReadYourWritesInterceptor readYourWritesInterceptor;
+    private final AsyncTaskExecutor exportTaskExecutor;
+    private final long exportTimeoutMs;
+
+    @Autowired
+    public WebConfig(RateLimitInterceptor rateLimitInterceptor,
+                     SqlStatementBudgetInterceptor sqlStatementBudgetInterceptor,
+                     ReadYourWritesInterceptor readYourWritesInterceptor,
+                     @Qualifier(AsyncConfig.EXPORT_TASK_EXECUTOR) AsyncTaskExecutor exportTaskExecutor,
+                     @Value("${ticket.export.timeout-ms}") long exportTimeoutMs) {
+        this.rateLimitInterceptor = rateLimitInterceptor;
+        this.sqlStatementBudgetInterceptor = sqlStatementBudgetInterceptor;
+        this.readYourWritesInterceptor = readYourWritesInterceptor;
+        this.exportTaskExecutor = exportTaskExecutor;
+        this.exportTimeoutMs = exportTimeoutMs;
+    }
+
     @Override
     public void configurePathMatch(PathMatchConfigurer pathMatchConfigurer) {
 
@@ -27,7 +50,10 @@ public class WebConfig implements WebMvcConfigurer {
 
     @Override
     public void configureAsyncSupport(AsyncSupportConfigurer asyncSupportConfigurer) {
-
+        // Only StreamingResponseBody exports run on the MVC executor; DeferredResult endpoints use the DB executor
+        // and set their own, shorter timeout (ticket.async.timeout-ms).
+        asyncSupportConfigurer.setTaskExecutor(exportTaskExecutor);
+        asyncSupportConfigurer.setDefaultTimeout(exportTimeoutMs);
     }
 
     @Override
@@ -42,7 +68,10 @@ public class WebConfig implements WebMvcConfigurer {
 
     @Override
     public void addInterceptors(InterceptorRegistry interceptorRegistry) {
-
+        // First, so a rejected request does no other work
+        interceptorRegistry.addInterceptor(rateLimitInterceptor);
+        interceptorRegistry.addInterceptor(sqlStatementBudgetInterceptor);
+        interceptorRegistry.addInterceptor(readYourWritesInterceptor);
     }
 
     @Override
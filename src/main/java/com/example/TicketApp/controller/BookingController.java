@@ -11,6 +11,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -23,17 +24,22 @@ public class BookingController {
     private static final Logger logger = LoggerFactory.getLogger(BookingController.class);
 
     private final BookingService bookingService;
+    private final DeferredResponses deferredResponses;
 
     @Autowired
-    public BookingController(BookingService bookingService) {
+    public BookingController(BookingService bookingService, DeferredResponses deferredResponses) {
         this.bookingService = bookingService;
+        this.deferredResponses = deferredResponses;
     }
 
     @GetMapping("/{booking-id}/validate")
-    public ResponseEntity<Map<String, Object>> validateBooking(
+    public DeferredResult<ResponseEntity<?>> validateBooking(
             @RequestParam long userId,
             @PathVariable("booking-id") long bookingId) {
+        return deferredResponses.supply(() -> doValidateBooking(userId, bookingId));
+    }
 
+    private ResponseEntity<Map<String, Object>> doValidateBooking(long userId, long bookingId) {
         Map<String, Object> response = new HashMap<>();
 
         try {
@@ -0,0 +1,180 @@
+package com.example.TicketApp.controller;
+
+import com.example.TicketApp.DTO.TicketVersion;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Conditional GET for ticket views. A request whose {@code If-None-Match} (or, without one, {@code If-Modified-Since})
+ * matches the current {@link TicketVersion} gets an empty 304 and nothing is loaded or serialized. Otherwise the
+ * response is rendered, serialized here and sent with {@code ETag} and {@code Last-Modified}.
+ * <p>
+ * The version is read before the response is rendered, so a change in between leaves an older ETag on newer data
+ * and costs the client one extra full response, never a missed update.
+ * <p>
+ * {@code ticketapp.conditional.requests} counts both outcomes per endpoint. For each 304,
+ * {@code ticketapp.conditional.saved.bytes} and {@code ticketapp.conditional.saved.time} add the body size and
+ * render time of the last full response sent with that ETag, when it is still remembered.
+ */
+@Component
+public class ConditionalResponses {
+
+    public static final String METRIC_NAME = "ticketapp.conditional.requests";
+    public static final String SAVED_BYTES_METRIC = "ticketapp.conditional.saved.bytes";
+    public static final String SAVED_TIME_METRIC = "ticketapp.conditional.saved.time";
+
+    private static final Logger logger = LoggerFactory.getLogger(ConditionalResponses.class);
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, Rendered> lastRendered;
+
+    @Autowired
+    public ConditionalResponses(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                @Value("${ticket.conditional.remembered-responses:10000}") long rememberedResponses) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.lastRendered = Caffeine.newBuilder()
+                .maximumSize(rememberedResponses)
+                .build();
+    }
+
+    /**
+     * @param endpoint metric tag
+     * @param variant  the request parameters that change the body for the same version, such as the page
+     * @param version  empty when the request will not succeed; it is then rendered without validators
+     */
+    public ResponseEntity<?> respond(String endpoint, String variant, HttpHeaders request,
+                                     Optional<TicketVersion> version, Supplier<ResponseEntity<?>> render) {
+        if (!version.isPresent()) {
+            return render.get();
+        }
+        if (isNotModified(request, version.get())) {
+            return notModified(endpoint, variant, version.get());
+        }
+        long start = System.nanoTime();
+        return withValidators(endpoint, variant, version.get(), render.get(), start);
+    }
+
+    // respond() for handlers that already run their reads in parallel on the DB executor
+    public CompletableFuture<ResponseEntity<?>> respondAsync(String endpoint, String variant, HttpHeaders request,
+                                                             Optional<TicketVersion> version,
+                                                             Supplier<CompletableFuture<? extends ResponseEntity<?>>> render) {
+        if (!version.isPresent()) {
+            return render.get().thenApply(response -> response);
+        }
+        if (isNotModified(request, version.get())) {
+            return CompletableFuture.completedFuture(notModified(endpoint, variant, version.get()));
+        }
+        long start = System.nanoTime();
+        return render.get().thenApply(response -> withValidators(endpoint, variant, version.get(), response, start));
+    }
+
+    static boolean isNotModified(HttpHeaders request, TicketVersion version) {
+        List<String> ifNoneMatch = request.getIfNoneMatch();
+        if (!ifNoneMatch.isEmpty()) {
+            String etag = opaque(version.getETag());
+            for (String candidate : ifNoneMatch) {
+                if ("*".equals(candidate) || opaque(candidate).equals(etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        long ifModifiedSince;
+        try {
+            ifModifiedSince = request.getIfModifiedSince();
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        // HTTP dates have one-second resolution; clients that need exactness send the ETag
+        long lastModified = version.getLastModifiedMillis();
+        return ifModifiedSince >= 0 && lastModified >= 0 && lastModified <= ifModifiedSince;
+    }
+
+    // Weak comparison, as If-None-Match requires
+    private static String opaque(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    private ResponseEntity<?> notModified(String endpoint, String variant, TicketVersion version) {
+        count(endpoint, "not-modified");
+        Rendered rendered = lastRendered.getIfPresent(key(endpoint, variant, version));
+        if (rendered != null) {
+            Counter.builder(SAVED_BYTES_METRIC).tag("endpoint", endpoint).baseUnit("bytes")
+                    .register(meterRegistry).increment(rendered.bytes);
+            Counter.builder(SAVED_TIME_METRIC).tag("endpoint", endpoint).baseUnit("seconds")
+                    .register(meterRegistry).increment(rendered.nanos / (double) TimeUnit.SECONDS.toNanos(1));
+        }
+        return validators(ResponseEntity.status(HttpStatus.NOT_MODIFIED), version).build();
+    }
+
+    private ResponseEntity<?> withValidators(String endpoint, String variant, TicketVersion version,
+                                             ResponseEntity<?> response, long start) {
+        if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
+            return response;
+        }
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(response.getBody());
+        } catch (JsonProcessingException e) {
+            logger.warn("Could not pre-serialize {} response, sending it without validators: {}", endpoint, e.getMessage());
+            return response;
+        }
+        lastRendered.put(key(endpoint, variant, version), new Rendered(body.length, System.nanoTime() - start));
+        count(endpoint, "modified");
+        return validators(ResponseEntity.status(response.getStatusCode()).headers(response.getHeaders()), version)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    private static ResponseEntity.BodyBuilder validators(ResponseEntity.BodyBuilder builder, TicketVersion version) {
+        builder.eTag(version.getETag()).cacheControl(CacheControl.noCache().cachePrivate());
+        if (version.getLastModifiedMillis() >= 0) {
+            builder.lastModified(version.getLastModifiedMillis());
+        }
+        return builder;
+    }
+
+    private void count(String endpoint, String result) {
+        Counter.builder(METRIC_NAME)
+                .tag("endpoint", endpoint)
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static String key(String endpoint, String variant, TicketVersion version) {
+        return endpoint + '|' + variant + '|' + version.getETag();
+    }
+
+    private static final class Rendered {
+        private final int bytes;
+        private final long nanos;
+
+        private Rendered(int bytes, long nanos) {
+            this.bytes = bytes;
+            this.nanos = nanos;
+        }
+    }
+}
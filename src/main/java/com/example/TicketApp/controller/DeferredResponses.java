@@ -0,0 +1,95 @@
+package com.example.TicketApp.controller;
+
+import com.example.TicketApp.config.AsyncConfig;
+import com.example.TicketApp.constants.ControllerConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Runs controller work on the DB executor and hands Tomcat a {@link DeferredResult}, so the worker thread is free
+ * while the database is busy. Requests that wait longer than {@code ticket.async.timeout-ms}, or that find the
+ * executor queue full, get a 503.
+ */
+@Component
+public class DeferredResponses {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeferredResponses.class);
+
+    private final AsyncTaskExecutor dbTaskExecutor;
+    private final long timeoutMs;
+
+    @Autowired
+    public DeferredResponses(@Qualifier(AsyncConfig.DB_TASK_EXECUTOR) AsyncTaskExecutor dbTaskExecutor,
+                             @Value("${ticket.async.timeout-ms}") long timeoutMs) {
+        this.dbTaskExecutor = dbTaskExecutor;
+        this.timeoutMs = timeoutMs;
+    }
+
+    // Runs a blocking handler on the DB executor
+    public DeferredResult<ResponseEntity<?>> supply(Supplier<ResponseEntity<?>> handler) {
+        return complete(() -> CompletableFuture.supplyAsync(handler, dbTaskExecutor));
+    }
+
+    // Completes with a future that the caller has already scheduled on the DB executor
+    public DeferredResult<ResponseEntity<?>> complete(Supplier<CompletableFuture<? extends ResponseEntity<?>>> work) {
+        DeferredResult<ResponseEntity<?>> result = new DeferredResult<>(timeoutMs);
+        result.onTimeout(() -> result.setErrorResult(unavailable("Request timed out")));
+        try {
+            work.get().whenComplete((response, error) -> {
+                if (error == null) {
+                    result.setResult(response);
+                } else {
+                    Throwable cause = unwrap(error);
+                    if (cause instanceof TaskRejectedException) {
+                        result.setErrorResult(unavailable("Server is busy, please retry"));
+                    } else {
+                        logger.error("Async request failed: {}", cause.getMessage(), cause);
+                        result.setErrorResult(error(HttpStatus.INTERNAL_SERVER_ERROR,
+                                ControllerConstants.MESSAGE_INTERNAL_SERVER_ERROR));
+                    }
+                }
+            });
+        } catch (TaskRejectedException e) {
+            result.setErrorResult(unavailable("Server is busy, please retry"));
+        }
+        return result;
+    }
+
+    public static Throwable unwrap(Throwable error) {
+        while ((error instanceof CompletionException || error instanceof ExecutionException) && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+
+    private static ResponseEntity<Map<String, Object>> unavailable(String message) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1").body(errorBody(message));
+    }
+
+    private static ResponseEntity<Map<String, Object>> error(HttpStatus status, String message) {
+        return ResponseEntity.status(status).body(errorBody(message));
+    }
+
+    private static Map<String, Object> errorBody(String message) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", ControllerConstants.STATUS_ERROR);
+        response.put("message", message);
+        return response;
+    }
+}
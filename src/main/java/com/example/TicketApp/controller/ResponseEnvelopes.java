@@ -0,0 +1,63 @@
+package com.example.TicketApp.controller;
+
+import com.example.TicketApp.DTO.SimpleTicketDTO;
+import com.example.TicketApp.DTO.TicketDTO;
+import com.example.TicketApp.DTO.TicketResponseDTO;
+import com.example.TicketApp.constants.ControllerConstants;
+import com.example.TicketApp.services.KeysetCursor;
+import org.springframework.data.domain.Page;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Success bodies of the read endpoints. Public so the benchmarks module measures the same code the controllers run.
+ */
+public final class ResponseEnvelopes {
+
+    private ResponseEnvelopes() {
+    }
+
+    // Ticket search by offset page, with totals
+    public static Map<String, Object> tickets(Page<SimpleTicketDTO> page, int size) {
+        Map<String, Object> response = tickets(page.getContent(), size);
+        response.put("totalElements", page.getTotalElements());
+        response.put("totalPages", page.getTotalPages());
+        return response;
+    }
+
+    // Ticket search after a keyset cursor; a full page carries the cursor for the next one
+    public static Map<String, Object> tickets(List<SimpleTicketDTO> tickets, int size) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", ControllerConstants.STATUS_SUCCESS);
+        response.put("data", Collections.singletonMap("tickets", tickets));
+        if (!tickets.isEmpty() && tickets.size() == size) {
+            SimpleTicketDTO last = tickets.get(tickets.size() - 1);
+            response.put("nextCursor", new KeysetCursor(last.getCreatedAt(), last.getTicketId()).encode());
+        }
+        return response;
+    }
+
+    // A ticket with one page of replies; a full page carries the cursor for the next one
+    public static Map<String, Object> ticket(TicketDTO ticket, int size) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", ControllerConstants.STATUS_SUCCESS);
+        response.put("data", ticket);
+        List<TicketResponseDTO> replies = ticket.getResponses();
+        if (size > 0 && replies.size() == size) {
+            TicketResponseDTO last = replies.get(replies.size() - 1);
+            response.put("nextCursor", new KeysetCursor(last.getResponseTime(), last.getResponseId()).encode());
+        }
+        return response;
+    }
+
+    public static Map<String, Object> replies(List<TicketResponseDTO> replies) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", ControllerConstants.STATUS_SUCCESS);
+        response.put("message", ControllerConstants.MESSAGE_REPLIES_FETCHED);
+        response.put("data", Collections.singletonMap("replies", replies));
+        return response;
+    }
+}
@@ -1,11 +1,16 @@
 package com.example.TicketApp.controller;
 
+import com.example.TicketApp.DTO.BulkTicketRequestDTO;
+import com.example.TicketApp.DTO.BulkTicketResultDTO;
+import com.example.TicketApp.DTO.FullTextHitDTO;
 import com.example.TicketApp.DTO.SimpleTicketDTO;
-import com.example.TicketApp.DTO.TicketDTO;
 import com.example.TicketApp.DTO.TicketResponseDTO;
+import com.example.TicketApp.config.AsyncConfig;
 import com.example.TicketApp.constants.ControllerConstants;
 import com.example.TicketApp.entity.Ticket;
+import com.example.TicketApp.services.TicketExportService;
 import com.example.TicketApp.services.TicketResponseService;
+import com.example.TicketApp.services.TicketSearchIndex;
 import com.example.TicketApp.services.TicketService;
 import com.example.TicketApp.customErrors.InvalidRequestException;
 import com.example.TicketApp.customErrors.UserNotFoundException;
@@ -13,15 +18,23 @@ import lombok.AllArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @CrossOrigin("http://localhost:3000")
@@ -33,30 +46,52 @@ public class TicketController {
 
     private TicketService ticketService;
     private TicketResponseService ticketResponseService;
+    private TicketSearchIndex ticketSearchIndex;
+    private TicketExportService ticketExportService;
+    private DeferredResponses deferredResponses;
+    private ConditionalResponses conditionalResponses;
+    private AsyncTaskExecutor dbTaskExecutor;
+    private ThreadPoolTaskExecutor exportTaskExecutor;
 
     @Autowired
-    public TicketController(TicketResponseService ticketResponseService,TicketService ticketService) {
+    public TicketController(TicketResponseService ticketResponseService,TicketService ticketService,
+                            TicketSearchIndex ticketSearchIndex, TicketExportService ticketExportService,
+                            DeferredResponses deferredResponses, ConditionalResponses conditionalResponses,
+                            @Qualifier(AsyncConfig.DB_TASK_EXECUTOR) AsyncTaskExecutor dbTaskExecutor,
+                            @Qualifier(AsyncConfig.EXPORT_TASK_EXECUTOR) ThreadPoolTaskExecutor exportTaskExecutor) {
         this.ticketResponseService = ticketResponseService;
         this.ticketService=ticketService;
+        this.ticketSearchIndex = ticketSearchIndex;
+        this.ticketExportService = ticketExportService;
+        this.deferredResponses = deferredResponses;
+        this.conditionalResponses = conditionalResponses;
+        this.dbTaskExecutor = dbTaskExecutor;
+        this.exportTaskExecutor = exportTaskExecutor;
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Map<String, Object>> searchTickets(
+    public DeferredResult<ResponseEntity<?>> searchTickets(
             @RequestParam long userId,
             @RequestParam String role,
             @RequestParam String status,
             @RequestParam String category,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor) {
+        return deferredResponses.supply(() -> doSearchTickets(userId, role, status, category, page, size, cursor));
+    }
 
+    private ResponseEntity<Map<String, Object>> doSearchTickets(long userId, String role, String status, String category,
+                                                                int page, int size, String cursor) {
         Map<String, Object> response = new HashMap<>();
         try {
+            if (cursor != null && !cursor.isEmpty()) {
+                // Keyset mode: no offset scan and no count query
+                return ResponseEntity.ok(ResponseEnvelopes.tickets(
+                        ticketService.getFilteredTicketsAfter(userId, role, status, category, cursor, size), size));
+            }
             Page<SimpleTicketDTO> paginatedTickets = ticketService.getFilteredTickets(userId, role, status, category, page, size);
-            response.put("status", ControllerConstants.STATUS_SUCCESS);
-            response.put("data", Collections.singletonMap("tickets", paginatedTickets.getContent()));
-            response.put("totalElements", paginatedTickets.getTotalElements());
-            response.put("totalPages", paginatedTickets.getTotalPages());
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(ResponseEnvelopes.tickets(paginatedTickets, size));
         } catch (UserNotFoundException e) {
             response.put("status", ControllerConstants.STATUS_ERROR);
             response.put("message", e.getMessage());
@@ -74,19 +109,105 @@ public class TicketController {
     }
 
     @GetMapping("/search/{userId}/{ticketId}")
-    public ResponseEntity<Map<String, Object>> searchTicket(
+    public DeferredResult<ResponseEntity<?>> searchTicket(
             @PathVariable long userId,
             @PathVariable long ticketId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestHeader HttpHeaders headers) {
+        // A poll with a current ETag is answered from one aggregate query; see ConditionalResponses
+        String variant = page + ":" + size + ":" + cursor;
+        return deferredResponses.complete(() -> CompletableFuture
+                .supplyAsync(() -> ticketService.findTicketVersion(userId, ticketId), dbTaskExecutor)
+                .thenCompose(version -> conditionalResponses.respondAsync("ticket", variant, headers, version,
+                        () -> doSearchTicket(userId, ticketId, page, size, cursor))));
+    }
 
+    // Participants, ticket row and reply page are read in parallel; see TicketService.searchTicketAsync
+    private CompletableFuture<ResponseEntity<Map<String, Object>>> doSearchTicket(long userId, long ticketId, int page,
+                                                                                   int size, String cursor) {
+        try {
+            return ticketService.searchTicketAsync(userId, ticketId, page, size, cursor)
+                    .handle((ticketDTO, error) -> error == null
+                            ? ResponseEntity.ok(ResponseEnvelopes.ticket(ticketDTO, size))
+                            : ticketSearchFailed(DeferredResponses.unwrap(error)));
+        } catch (InvalidRequestException e) {
+            return CompletableFuture.completedFuture(ticketSearchFailed(e));
+        }
+    }
+
+    private ResponseEntity<Map<String, Object>> ticketSearchFailed(Throwable e) {
         Map<String, Object> response = new HashMap<>();
+        response.put("status", ControllerConstants.STATUS_ERROR);
+        if (e instanceof UserNotFoundException) {
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        } else if (e instanceof InvalidRequestException) {
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        } else if (e instanceof TaskRejectedException) {
+            response.put("message", "Server is busy, please retry");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1").body(response);
+        }
+        logger.error("Error fetching ticket: {}", e.getMessage());
+        response.put("message", "Internal server error");
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+    }
+
+    @GetMapping("/fulltext")
+    public ResponseEntity<Map<String, Object>> fullTextSearch(
+            @RequestParam long userId,
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
 
+        Map<String, Object> response = new HashMap<>();
         try {
-            TicketDTO ticketDTO = ticketService.searchTicket(userId, ticketId, page, size);
+            Page<FullTextHitDTO> hits = ticketSearchIndex.search(userId, query, page, size);
             response.put("status", ControllerConstants.STATUS_SUCCESS);
-            response.put("data", ticketDTO);
+            response.put("data", Collections.singletonMap("hits", hits.getContent()));
+            response.put("totalElements", hits.getTotalElements());
+            response.put("totalPages", hits.getTotalPages());
             return ResponseEntity.ok(response);
+        } catch (InvalidRequestException e) {
+            response.put("status", ControllerConstants.STATUS_ERROR);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        } catch (Exception e) {
+            logger.error("Error in full-text search: {}", e.getMessage(), e);
+            response.put("status", ControllerConstants.STATUS_ERROR);
+            response.put("message", "Internal server error");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<?> exportTickets(
+            @RequestParam long userId,
+            @RequestParam String role,
+            @RequestParam(defaultValue = "ALL") String status,
+            @RequestParam(defaultValue = "ALL") String category,
+            @RequestParam(defaultValue = "false") boolean replies,
+            @RequestParam(defaultValue = "ndjson") String format) {
+
+        Map<String, Object> response = new HashMap<>();
+        if (exportTaskExecutor.getActiveCount() >= exportTaskExecutor.getMaxPoolSize()) {
+            // The export executor has no queue; refuse up front rather than fail once the body is submitted
+            response.put("status", ControllerConstants.STATUS_ERROR);
+            response.put("message", "Too many exports running, please retry later");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "30").body(response);
+        }
+        try {
+            TicketExportService.Format exportFormat = TicketExportService.Format.parse(format);
+            TicketExportService.ExportQuery query = ticketExportService.prepare(userId, role, status, category);
+            // Rows are written on an MVC async thread as the cursors advance; nothing is collected up front
+            StreamingResponseBody body = out -> ticketExportService.write(query, replies, exportFormat, out);
+            return ResponseEntity.ok()
+                    .contentType(exportFormat.getMediaType())
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                            "attachment; filename=\"tickets-" + userId + "." + exportFormat.getExtension() + "\"")
+                    .body(body);
         } catch (UserNotFoundException e) {
             response.put("status", ControllerConstants.STATUS_ERROR);
             response.put("message", e.getMessage());
@@ -96,7 +217,7 @@ public class TicketController {
             response.put("message", e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
         } catch (Exception e) {
-            logger.error("Error fetching ticket: {}", e.getMessage());
+            logger.error("Error starting ticket export: {}", e.getMessage(), e);
             response.put("status", ControllerConstants.STATUS_ERROR);
             response.put("message", "Internal server error");
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
@@ -104,9 +225,13 @@ public class TicketController {
     }
 
     @GetMapping("/count/search")
-    public ResponseEntity<Map<String, Object>> getTicketCount(@RequestParam long userId,
-                                                              @RequestParam String role,
-                                                              @RequestParam String category) {
+    public DeferredResult<ResponseEntity<?>> getTicketCount(@RequestParam long userId,
+                                                            @RequestParam String role,
+                                                            @RequestParam String category) {
+        return deferredResponses.supply(() -> doGetTicketCount(userId, role, category));
+    }
+
+    private ResponseEntity<Map<String, Object>> doGetTicketCount(long userId, String role, String category) {
         Map<String, Object> response = new HashMap<>();
 
 
@@ -132,8 +257,14 @@ public class TicketController {
     }
 
     @GetMapping("/{ticket-id}/response")
-    public ResponseEntity<?> getAllTicketResponses(@PathVariable("ticket-id") long ticketId,
-                                                   @RequestParam long userId) {
+    public DeferredResult<ResponseEntity<?>> getAllTicketResponses(@PathVariable("ticket-id") long ticketId,
+                                                                   @RequestParam long userId,
+                                                                   @RequestHeader HttpHeaders headers) {
+        return deferredResponses.supply(() -> conditionalResponses.respond("thread", "", headers,
+                ticketService.findThreadVersion(ticketId), () -> doGetAllTicketResponses(ticketId, userId)));
+    }
+
+    private ResponseEntity<?> doGetAllTicketResponses(long ticketId, long userId) {
         Map<String, Object> response = new HashMap<>();
         try {
             List<TicketResponseDTO> replies = ticketService.getAllTicketResponses(userId, ticketId);
@@ -142,10 +273,7 @@ public class TicketController {
                 response.put("message", "Ticket not found");
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
             }
-            response.put("status", ControllerConstants.STATUS_SUCCESS);
-            response.put("message", ControllerConstants.MESSAGE_REPLIES_FETCHED);
-            response.put("data", Collections.singletonMap("replies", replies));
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(ResponseEnvelopes.replies(replies));
         } catch (Exception e) {
             logger.error("Error fetching ticket responses: {}", e.getMessage());
             response.put("status", ControllerConstants.STATUS_ERROR);
@@ -185,4 +313,33 @@ public class TicketController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
         }
     }
+
+    @PostMapping("/bulk")
+    public ResponseEntity<?> createTickets(@RequestBody List<BulkTicketRequestDTO> tickets) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            List<BulkTicketResultDTO> results = ticketService.createTickets(tickets);
+            long created = results.stream()
+                    .filter(result -> ControllerConstants.STATUS_SUCCESS.equals(result.getStatus()))
+                    .count();
+
+            response.put("status", ControllerConstants.STATUS_SUCCESS);
+            Map<String, Object> data = new HashMap<>();
+            data.put("created", created);
+            data.put("failed", results.size() - created);
+            data.put("results", results);
+            response.put("data", data);
+            return ResponseEntity.ok(response);
+        } catch (InvalidRequestException e) {
+            logger.error("Bad request: {}", e.getMessage());
+            response.put("status", ControllerConstants.STATUS_ERROR);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        } catch (Exception e) {
+            logger.error("Internal server error: {}", e.getMessage(), e);
+            response.put("status", ControllerConstants.STATUS_ERROR);
+            response.put("message", "Internal server error");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
 }
\ No newline at end of file
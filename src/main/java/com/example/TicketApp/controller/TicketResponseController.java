@@ -1,8 +1,10 @@
 package com.example.TicketApp.controller;
 
 import com.example.TicketApp.DTO.TicketResponseDTO;
+import com.example.TicketApp.customErrors.ServiceOverloadedException;
 import com.example.TicketApp.customErrors.UserNotAuthorizedException;
 import com.example.TicketApp.entity.TicketResponse;
+import com.example.TicketApp.services.ReplyWriteBehindQueue;
 import com.example.TicketApp.services.TicketResponseService;
 import com.example.TicketApp.constants.ControllerConstants;
 import com.example.TicketApp.customErrors.InvalidRequestException;
@@ -25,11 +27,13 @@ import java.util.Map;
 public class TicketResponseController {
 
     private final TicketResponseService ticketResponseService;
+    private final ReplyWriteBehindQueue replyWriteBehindQueue;
     private static final Logger logger = LoggerFactory.getLogger(TicketResponseController.class);
 
     @Autowired
-    public TicketResponseController(TicketResponseService ticketResponseService) {
+    public TicketResponseController(TicketResponseService ticketResponseService, ReplyWriteBehindQueue replyWriteBehindQueue) {
         this.ticketResponseService = ticketResponseService;
+        this.replyWriteBehindQueue = replyWriteBehindQueue;
     }
 
     // Endpoint to create a new reply (ticket response)
@@ -45,6 +49,18 @@ public class TicketResponseController {
             String role = requestBody.get("role").toString();
             Map<String, Object> replyData = (Map<String, Object>) requestBody.get("replyData");
 
+            if (replyWriteBehindQueue.isEnabled()) {
+                // Write-behind mode: validated now, written by the batch writer shortly after
+                String acceptedId = replyWriteBehindQueue.accept(ticketId, userId, role, replyData);
+                Map<String, Object> data = new HashMap<>();
+                data.put("acceptedId", acceptedId);
+                data.put("ticketId", ticketId);
+                response.put("status", "success");
+                response.put("message", "Reply accepted");
+                response.put("data", data);
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+            }
+
             // Call the service to create the reply
             TicketResponseDTO createdReply = ticketResponseService.createTicketReply(ticketId, userId, role, replyData);
 
@@ -59,6 +75,10 @@ public class TicketResponseController {
             response.put("status", "error");
             response.put("message", e.getMessage());
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        } catch (ServiceOverloadedException e) {
+            response.put("status", "error");
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1").body(response);
         } catch (Exception e) {
             response.put("status", "error");
             response.put("message", "Internal server error");
@@ -1,6 +1,7 @@
 package com.example.TicketApp.controller;
 
 import com.example.TicketApp.DTO.UserSignRequestDTO;
+import com.example.TicketApp.config.ReplicaRoutingContext;
 import com.example.TicketApp.entity.User;
 import com.example.TicketApp.repository.UserRespository;
 import com.example.TicketApp.services.UserService;
@@ -14,6 +15,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -25,12 +27,14 @@ public class UserController {
 
     private final UserService userService;
     private final UserRespository userRespository;
+    private final DeferredResponses deferredResponses;
     private static final Logger logger = LoggerFactory.getLogger(UserController.class);
 
     @Autowired
-    public UserController(UserService userService, UserRespository userRespository) {
+    public UserController(UserService userService, UserRespository userRespository, DeferredResponses deferredResponses) {
         this.userService = userService;
         this.userRespository = userRespository;
+        this.deferredResponses = deferredResponses;
     }
 
     @PostMapping("/signup")
@@ -56,11 +60,19 @@ public class UserController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<Map<String, Object>> login(@RequestBody UserSignRequestDTO userSignRequestDTO) {
+    public DeferredResult<ResponseEntity<?>> login(@RequestBody UserSignRequestDTO userSignRequestDTO) {
+        return deferredResponses.supply(() -> doLogin(userSignRequestDTO));
+    }
+
+    private ResponseEntity<Map<String, Object>> doLogin(UserSignRequestDTO userSignRequestDTO) {
         Map<String, Object> response = new HashMap<>();
 
         try {
             Optional<User> existingUser  = userRespository.findByEmail(userSignRequestDTO.getEmail());
+            if (!existingUser .isPresent()) {
+                // A replica may not have the account yet if signup was moments ago
+                existingUser = ReplicaRoutingContext.onPrimary(() -> userRespository.findByEmail(userSignRequestDTO.getEmail()));
+            }
             if (!existingUser .isPresent()) {
                 throw new UserNotFoundException(ControllerConstants.MESSAGE_USER_NOT_FOUND);
             }
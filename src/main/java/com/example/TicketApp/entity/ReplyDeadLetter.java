@@ -0,0 +1,42 @@
+package com.example.TicketApp.entity;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A reply that was accepted with 202 by the write-behind path but could not be written, kept so it can be inspected
+ * and replayed. See {@link com.example.TicketApp.services.ReplyWriteBehindQueue}.
+ */
+@Entity
+@Table(name = "reply_dead_letter")
+@Data
+@NoArgsConstructor
+public class ReplyDeadLetter {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long deadLetterId;
+
+    @Column(nullable = false, length = 36)
+    private String acceptedId;
+
+    @Column(nullable = false)
+    private Long ticketId;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, length = 16)
+    private String role;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String responseText;
+
+    @Column(nullable = false, length = 1000)
+    private String error;
+
+    @Column(nullable = false)
+    private LocalDateTime failedAt;
+}
@@ -0,0 +1,47 @@
+package com.example.TicketApp.entity;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A ticket change that one change-feed subscriber still failed on after its retries, kept for inspection and
+ * replay once the outbox row is gone. See {@link com.example.TicketApp.services.TicketOutbox}.
+ */
+@Entity
+@Table(name = "ticket_outbox_dead_letter")
+@Data
+@NoArgsConstructor
+public class TicketOutboxDeadLetter {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long deadLetterId;
+
+    @Column(nullable = false)
+    private Long eventId;
+
+    @Column(nullable = false, length = 64)
+    private String subscriber;
+
+    @Column(nullable = false)
+    private Long ticketId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private TicketOutboxEvent.Type changeType;
+
+    private Long responseId;
+
+    private Long userId;
+
+    @Column(nullable = false)
+    private LocalDateTime occurredAt;
+
+    @Column(nullable = false, length = 1000)
+    private String error;
+
+    @Column(nullable = false)
+    private LocalDateTime failedAt;
+}
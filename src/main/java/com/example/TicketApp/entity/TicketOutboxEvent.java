@@ -0,0 +1,40 @@
+package com.example.TicketApp.entity;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One ticket change, written in the transaction that makes it and deleted once every change-feed subscriber has
+ * handled it. See {@link com.example.TicketApp.services.TicketOutbox}.
+ */
+@Entity
+@Table(name = "ticket_outbox")
+@Data
+@NoArgsConstructor
+public class TicketOutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ticket_outbox_seq")
+    @SequenceGenerator(name = "ticket_outbox_seq", sequenceName = "ticket_outbox_id_seq", allocationSize = 50)  // Pooled ids so bulk ticket creation stays JDBC-batched
+    private Long eventId;
+
+    @Column(nullable = false)
+    private Long ticketId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private Type changeType;
+
+    private Long responseId;
+
+    private Long userId;
+
+    @Column(nullable = false)
+    private LocalDateTime occurredAt;
+
+    public enum Type {
+        TICKET_CREATED, TICKET_RESOLVED, REPLY_CREATED, REPLY_UPDATED, REPLY_DELETED
+    }
+}
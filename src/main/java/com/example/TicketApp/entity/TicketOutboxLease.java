@@ -0,0 +1,27 @@
+package com.example.TicketApp.entity;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Which application instance may run the outbox relay, until when. See
+ * {@link com.example.TicketApp.services.TicketOutbox}.
+ */
+@Entity
+@Table(name = "ticket_outbox_lease")
+@Data
+@NoArgsConstructor
+public class TicketOutboxLease {
+    @Id
+    @Column(length = 64)
+    private String leaseName;
+
+    @Column(nullable = false, length = 128)
+    private String owner;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+}
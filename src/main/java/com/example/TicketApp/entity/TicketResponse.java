@@ -4,6 +4,8 @@ import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -13,20 +15,23 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "ticket_responses")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "ticket-responses")
 @Data
 @NoArgsConstructor
 @JsonIgnoreProperties({"ticket", "user"})  // Ignore unnecessary fields during serialization
 public class TicketResponse {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ticket_response_seq")
+    @SequenceGenerator(name = "ticket_response_seq", sequenceName = "ticket_response_id_seq", allocationSize = 50)  // Pooled ids so inserts can be JDBC-batched
     private Long responseId;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "ticket_id", nullable = false)
     @JsonBackReference  // Prevent recursive serialization
     private Ticket ticket;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     @JsonBackReference  // Prevent recursive serialization
     private User user;
@@ -2,6 +2,8 @@ package com.example.TicketApp.repository;
 
 import com.example.TicketApp.entity.Booking;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -9,4 +11,7 @@ import java.util.Optional;
 @Repository
 public interface BookingRespository extends JpaRepository<Booking,Long> {
     Optional<Booking> findById(long bookingId);
+
+    @Query("SELECT b.user.userId FROM Booking b WHERE b.bookingId = :bookingId")
+    Optional<Long> findOwnerIdByBookingId(@Param("bookingId") long bookingId);
 }
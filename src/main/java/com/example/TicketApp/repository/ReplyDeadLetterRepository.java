@@ -0,0 +1,9 @@
+package com.example.TicketApp.repository;
+
+import com.example.TicketApp.entity.ReplyDeadLetter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReplyDeadLetterRepository extends JpaRepository<ReplyDeadLetter, Long> {
+}
@@ -0,0 +1,13 @@
+package com.example.TicketApp.repository;
+
+import com.example.TicketApp.entity.TicketOutboxDeadLetter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TicketOutboxDeadLetterRepository extends JpaRepository<TicketOutboxDeadLetter, Long> {
+
+     List<TicketOutboxDeadLetter> findBySubscriberOrderByEventId(String subscriber);
+}
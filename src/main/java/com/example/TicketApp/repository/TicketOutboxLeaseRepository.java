@@ -0,0 +1,25 @@
+package com.example.TicketApp.repository;
+
+import com.example.TicketApp.entity.TicketOutboxLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface TicketOutboxLeaseRepository extends JpaRepository<TicketOutboxLease, String> {
+
+     // Takes or renews the lease if this owner holds it or it has expired; 1 when the caller now holds it
+     @Modifying
+     @Query("UPDATE TicketOutboxLease l SET l.owner = :owner, l.expiresAt = :expiresAt " +
+             "WHERE l.leaseName = :leaseName AND (l.owner = :owner OR l.expiresAt < :now)")
+     int claim(@Param("leaseName") String leaseName, @Param("owner") String owner,
+               @Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt);
+
+     @Modifying
+     @Query("UPDATE TicketOutboxLease l SET l.expiresAt = :now WHERE l.leaseName = :leaseName AND l.owner = :owner")
+     int release(@Param("leaseName") String leaseName, @Param("owner") String owner, @Param("now") LocalDateTime now);
+}
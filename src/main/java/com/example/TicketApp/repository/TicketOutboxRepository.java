@@ -0,0 +1,24 @@
+package com.example.TicketApp.repository;
+
+import com.example.TicketApp.entity.TicketOutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TicketOutboxRepository extends JpaRepository<TicketOutboxEvent, Long> {
+
+     // Oldest undelivered events first; every row still present has not been handled by all subscribers
+     @Query("SELECT e FROM TicketOutboxEvent e ORDER BY e.eventId")
+     List<TicketOutboxEvent> findOldest(Pageable pageable);
+
+     @Modifying
+     @Query("DELETE FROM TicketOutboxEvent e WHERE e.eventId IN :eventIds")
+     int deleteByEventIds(@Param("eventIds") Collection<Long> eventIds);
+}
@@ -1,20 +1,116 @@
 package com.example.TicketApp.repository;
 
+import com.example.TicketApp.DTO.SimpleTicketDTO;
+import com.example.TicketApp.DTO.TicketVersion;
 import com.example.TicketApp.entity.Ticket;
 import com.example.TicketApp.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 @Repository
 public interface TicketRepository extends JpaRepository<Ticket,Long> {
 
      Optional<Ticket> findById(long ticketId);
 
+     // Search index rebuild, keyset by id: [ticketId, description, customerId, agentId, createdAt]
+     @Query("SELECT t.ticketId, t.description, t.customer.userId, a.userId, t.createdAt FROM Ticket t LEFT JOIN t.agent a " +
+             "WHERE t.ticketId > :afterId ORDER BY t.ticketId")
+     List<Object[]> findIndexRowsAfter(@Param("afterId") long afterId, Pageable pageable);
+
+     // [customerId, agentId] for authorization checks; at most one row
+     @Query("SELECT t.customer.userId, a.userId FROM Ticket t LEFT JOIN t.agent a WHERE t.ticketId = :ticketId")
+     List<Object[]> findParticipantIds(@Param("ticketId") long ticketId);
+
+     // Conditional GETs: one aggregate over idx_ticket_responses_ticket_updated, no entities loaded
+     @Query("SELECT new com.example.TicketApp.DTO.TicketVersion(t.ticketId, COALESCE(t.updatedAt, t.createdAt), " +
+             "MAX(r.updatedAt), COUNT(r)) FROM Ticket t LEFT JOIN t.responses r WHERE t.ticketId = :ticketId " +
+             "GROUP BY t.ticketId, t.updatedAt, t.createdAt")
+     Optional<TicketVersion> findVersion(@Param("ticketId") long ticketId);
+
+     String SIMPLE_TICKET_SELECT = "SELECT new com.example.TicketApp.DTO.SimpleTicketDTO(" +
+             "t.ticketId, t.description, t.status, t.category, t.createdAt, t.updatedAt, a.email, c.email) " +
+             "FROM Ticket t JOIN t.customer c LEFT JOIN t.agent a ";
+
+     String STATUS_CATEGORY_FILTER = "AND t.status IN :statuses AND t.category IN :categories ";
+
+     String KEYSET_AFTER = "AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.ticketId < :ticketId)) ";
+
+     String NEWEST_FIRST = "ORDER BY t.createdAt DESC, t.ticketId DESC";
+
+     @Query(value = SIMPLE_TICKET_SELECT + "WHERE a.userId = :userId " + STATUS_CATEGORY_FILTER + NEWEST_FIRST,
+             countQuery = "SELECT COUNT(t) FROM Ticket t WHERE t.agent.userId = :userId " + STATUS_CATEGORY_FILTER)
+     Page<SimpleTicketDTO> findAgentTickets(@Param("userId") long userId,
+                                            @Param("statuses") Collection<Ticket.Status> statuses,
+                                            @Param("categories") Collection<Ticket.Category> categories,
+                                            Pageable pageable);
+
+     @Query(value = SIMPLE_TICKET_SELECT + "WHERE c.userId = :userId " + STATUS_CATEGORY_FILTER + NEWEST_FIRST,
+             countQuery = "SELECT COUNT(t) FROM Ticket t WHERE t.customer.userId = :userId " + STATUS_CATEGORY_FILTER)
+     Page<SimpleTicketDTO> findCustomerTickets(@Param("userId") long userId,
+                                               @Param("statuses") Collection<Ticket.Status> statuses,
+                                               @Param("categories") Collection<Ticket.Category> categories,
+                                               Pageable pageable);
+
+     // Keyset variants: the caller passes the last (createdAt, ticketId) it has seen and an unsorted Pageable for the limit
+     @Query(SIMPLE_TICKET_SELECT + "WHERE a.userId = :userId " + STATUS_CATEGORY_FILTER + KEYSET_AFTER + NEWEST_FIRST)
+     List<SimpleTicketDTO> findAgentTicketsAfter(@Param("userId") long userId,
+                                                 @Param("statuses") Collection<Ticket.Status> statuses,
+                                                 @Param("categories") Collection<Ticket.Category> categories,
+                                                 @Param("createdAt") LocalDateTime createdAt,
+                                                 @Param("ticketId") long ticketId,
+                                                 Pageable pageable);
+
+     @Query(SIMPLE_TICKET_SELECT + "WHERE c.userId = :userId " + STATUS_CATEGORY_FILTER + KEYSET_AFTER + NEWEST_FIRST)
+     List<SimpleTicketDTO> findCustomerTicketsAfter(@Param("userId") long userId,
+                                                    @Param("statuses") Collection<Ticket.Status> statuses,
+                                                    @Param("categories") Collection<Ticket.Category> categories,
+                                                    @Param("createdAt") LocalDateTime createdAt,
+                                                    @Param("ticketId") long ticketId,
+                                                    Pageable pageable);
+
+     // One row per status: [Ticket.Status, Long]
+     @Query("SELECT t.status, COUNT(t) FROM Ticket t WHERE t.agent.userId = :userId " +
+             "AND t.category IN :categories GROUP BY t.status")
+     List<Object[]> countAgentTicketsByStatus(@Param("userId") long userId,
+                                              @Param("categories") Collection<Ticket.Category> categories);
+
+     @Query("SELECT t.status, COUNT(t) FROM Ticket t WHERE t.customer.userId = :userId " +
+             "AND t.category IN :categories GROUP BY t.status")
+     List<Object[]> countCustomerTicketsByStatus(@Param("userId") long userId,
+                                                 @Param("categories") Collection<Ticket.Category> categories);
+
+     // One row per agent with active tickets: [agentId, Long]
+     @Query("SELECT t.agent.userId, COUNT(t) FROM Ticket t WHERE t.status = com.example.TicketApp.entity.Ticket$Status.ACTIVE " +
+             "AND t.agent IS NOT NULL GROUP BY t.agent.userId")
+     List<Object[]> countActiveTicketsPerAgent();
+
+     // Export: forward-only cursors read EXPORT_FETCH_SIZE rows per round trip; callers must hold a transaction and close the stream
+     String EXPORT_FETCH_SIZE = "500";
+
+     @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE), @QueryHint(name = HINT_READONLY, value = "true")})
+     @Query(SIMPLE_TICKET_SELECT + "WHERE a.userId = :userId " + STATUS_CATEGORY_FILTER + "ORDER BY t.ticketId")
+     Stream<SimpleTicketDTO> streamAgentTickets(@Param("userId") long userId,
+                                                @Param("statuses") Collection<Ticket.Status> statuses,
+                                                @Param("categories") Collection<Ticket.Category> categories);
 
+     @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE), @QueryHint(name = HINT_READONLY, value = "true")})
+     @Query(SIMPLE_TICKET_SELECT + "WHERE c.userId = :userId " + STATUS_CATEGORY_FILTER + "ORDER BY t.ticketId")
+     Stream<SimpleTicketDTO> streamCustomerTickets(@Param("userId") long userId,
+                                                   @Param("statuses") Collection<Ticket.Status> statuses,
+                                                   @Param("categories") Collection<Ticket.Category> categories);
 }
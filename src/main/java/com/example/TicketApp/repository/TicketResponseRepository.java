@@ -1,15 +1,26 @@
 package com.example.TicketApp.repository;
 
+import com.example.TicketApp.DTO.TicketResponseDTO;
 import com.example.TicketApp.entity.Ticket;
 import com.example.TicketApp.entity.TicketResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static com.example.TicketApp.repository.TicketRepository.EXPORT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 @Repository
 public interface TicketResponseRepository extends JpaRepository<TicketResponse,Long> {
@@ -18,4 +29,53 @@ public interface TicketResponseRepository extends JpaRepository<TicketResponse,L
     @Query("SELECT tr FROM TicketResponse tr WHERE tr.ticket = :ticket")
     Page<TicketResponse> findByTicket(@Param("ticket") Ticket ticket, Pageable pageable);
 
+    String THREAD_SELECT = "SELECT new com.example.TicketApp.DTO.TicketResponseDTO(" +
+            "tr.responseId, t.ticketId, tr.responseText, tr.role, u.email, COALESCE(a.email, c.email), tr.createdAt) " +
+            "FROM TicketResponse tr JOIN tr.ticket t JOIN tr.user u JOIN t.customer c LEFT JOIN t.agent a " +
+            "WHERE t.ticketId = :ticketId ";
+
+    String OLDEST_FIRST = "ORDER BY tr.createdAt ASC, tr.responseId ASC";
+
+    // Served by idx_ticket_responses_ticket_created; the Pageable only supplies offset and limit
+    @Query(THREAD_SELECT + OLDEST_FIRST)
+    List<TicketResponseDTO> findThreadPage(@Param("ticketId") long ticketId, Pageable pageable);
+
+    @Query(THREAD_SELECT + "AND (tr.createdAt > :createdAt OR (tr.createdAt = :createdAt AND tr.responseId > :responseId)) " + OLDEST_FIRST)
+    List<TicketResponseDTO> findThreadPageAfter(@Param("ticketId") long ticketId,
+                                                @Param("createdAt") LocalDateTime createdAt,
+                                                @Param("responseId") long responseId,
+                                                Pageable pageable);
+
+    // Search index rebuild, keyset by id: [responseId, ticketId, responseText, customerId, agentId, createdAt]
+    @Query("SELECT tr.responseId, t.ticketId, tr.responseText, t.customer.userId, a.userId, tr.createdAt " +
+            "FROM TicketResponse tr JOIN tr.ticket t LEFT JOIN t.agent a WHERE tr.responseId > :afterId ORDER BY tr.responseId")
+    List<Object[]> findIndexRowsAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    String REPLY_SELECT = "SELECT new com.example.TicketApp.DTO.TicketResponseDTO(" +
+            "tr.responseId, t.ticketId, tr.responseText, tr.role, u.email, a.email, tr.createdAt) " +
+            "FROM TicketResponse tr JOIN tr.ticket t JOIN tr.user u LEFT JOIN t.agent a ";
+
+    // Whole reply thread with author and agent emails in one statement
+    @Query(REPLY_SELECT + "WHERE t.ticketId = :ticketId " + OLDEST_FIRST)
+    List<TicketResponseDTO> findThreadDTOs(@Param("ticketId") long ticketId);
+
+    @Query(REPLY_SELECT + "WHERE tr.responseId = :responseId")
+    Optional<TicketResponseDTO> findDTOById(@Param("responseId") long responseId);
+
+    // Export: every reply of the matching tickets, grouped by ticket in the order TicketRepository.stream*Tickets returns them
+    String EXPORT_FILTER = "AND t.status IN :statuses AND t.category IN :categories " +
+            "ORDER BY t.ticketId, tr.createdAt ASC, tr.responseId ASC";
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE), @QueryHint(name = HINT_READONLY, value = "true")})
+    @Query(REPLY_SELECT + "WHERE a.userId = :userId " + EXPORT_FILTER)
+    Stream<TicketResponseDTO> streamAgentThreads(@Param("userId") long userId,
+                                                 @Param("statuses") Collection<Ticket.Status> statuses,
+                                                 @Param("categories") Collection<Ticket.Category> categories);
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE), @QueryHint(name = HINT_READONLY, value = "true")})
+    @Query(REPLY_SELECT + "WHERE t.customer.userId = :userId " + EXPORT_FILTER)
+    Stream<TicketResponseDTO> streamCustomerThreads(@Param("userId") long userId,
+                                                    @Param("statuses") Collection<Ticket.Status> statuses,
+                                                    @Param("categories") Collection<Ticket.Category> categories);
+
 }
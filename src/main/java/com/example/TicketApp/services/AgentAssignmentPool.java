@@ -0,0 +1,170 @@
+package com.example.TicketApp.services;
+
+import com.example.TicketApp.entity.User;
+import com.example.TicketApp.repository.TicketRepository;
+import com.example.TicketApp.repository.UserRespository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory view of agents ordered by how many active tickets they hold.
+ * <p>
+ * Every agent has exactly one {@link Slot} in {@code byLoad}. A thread that removes an agent's slot owns that
+ * agent's counter until it puts a new slot back, so the counter and the ordering never disagree and no locks
+ * are needed. Assignment takes the head of the skip list, which is O(log n).
+ */
+@Service
+public class AgentAssignmentPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(AgentAssignmentPool.class);
+
+    private final UserRespository userRespository;
+    private final TicketRepository ticketRepository;
+
+    private final ConcurrentSkipListSet<Slot> byLoad = new ConcurrentSkipListSet<>();
+    private final Map<Long, AtomicInteger> loads = new ConcurrentHashMap<>();
+    private final Map<Long, String> emails = new ConcurrentHashMap<>();
+
+    @Autowired
+    public AgentAssignmentPool(UserRespository userRespository, TicketRepository ticketRepository) {
+        this.userRespository = userRespository;
+        this.ticketRepository = ticketRepository;
+    }
+
+    @PostConstruct
+    public synchronized void refresh() {
+        Map<Long, Long> activeCounts = new HashMap<>();
+        for (Object[] row : ticketRepository.countActiveTicketsPerAgent()) {
+            activeCounts.put((Long) row[0], (Long) row[1]);
+        }
+
+        List<User> agents = userRespository.findByRole(User.Role.AGENT);
+        byLoad.clear();
+        loads.clear();
+        emails.clear();
+        for (User agent : agents) {
+            addAgent(agent.getUserId(), agent.getEmail(), activeCounts.getOrDefault(agent.getUserId(), 0L).intValue());
+        }
+        logger.info("Agent pool loaded with {} agents", agents.size());
+    }
+
+    public void registerAgent(User agent) {
+        if (agent.getRole() != User.Role.AGENT) {
+            return;
+        }
+        // Only the caller whose counter went in adds the slot, so concurrent registrations add one
+        if (loads.putIfAbsent(agent.getUserId(), new AtomicInteger()) == null) {
+            emails.put(agent.getUserId(), agent.getEmail());
+            byLoad.add(new Slot(agent.getUserId(), 0));
+        }
+    }
+
+    /**
+     * Picks the least-loaded agent and counts one more active ticket against it.
+     */
+    public long assign() {
+        while (true) {
+            Slot head = byLoad.pollFirst();
+            if (head == null) {
+                if (loads.isEmpty()) {
+                    throw new IllegalStateException("No available agents for ticket assignment");
+                }
+                // Every slot is momentarily held by other threads
+                Thread.yield();
+                continue;
+            }
+            AtomicInteger load = loads.get(head.agentId);
+            if (load == null) {
+                continue;
+            }
+            byLoad.add(new Slot(head.agentId, load.incrementAndGet()));
+            return head.agentId;
+        }
+    }
+
+    /**
+     * Gives back one active ticket, e.g. when it is resolved or its insert failed.
+     */
+    public void release(long agentId) {
+        AtomicInteger load = loads.get(agentId);
+        if (load == null) {
+            return;
+        }
+        while (true) {
+            int current = load.get();
+            if (current == 0) {
+                return;
+            }
+            if (byLoad.remove(new Slot(agentId, current))) {
+                byLoad.add(new Slot(agentId, load.decrementAndGet()));
+                return;
+            }
+            Thread.yield();
+        }
+    }
+
+    public String getEmail(long agentId) {
+        return emails.get(agentId);
+    }
+
+    public int getLoad(long agentId) {
+        AtomicInteger load = loads.get(agentId);
+        return load != null ? load.get() : 0;
+    }
+
+    // Agent id and load of every slot in assignment order; only consistent while no assign or release is running
+    List<long[]> slots() {
+        List<long[]> slots = new ArrayList<>();
+        for (Slot slot : byLoad) {
+            slots.add(new long[]{slot.agentId, slot.load});
+        }
+        return slots;
+    }
+
+    private void addAgent(long agentId, String email, int activeTickets) {
+        emails.put(agentId, email);
+        loads.put(agentId, new AtomicInteger(activeTickets));
+        byLoad.add(new Slot(agentId, activeTickets));
+    }
+
+    private static final class Slot implements Comparable<Slot> {
+        private final long agentId;
+        private final int load;
+
+        private Slot(long agentId, int load) {
+            this.agentId = agentId;
+            this.load = load;
+        }
+
+        @Override
+        public int compareTo(Slot other) {
+            int byCount = Integer.compare(load, other.load);
+            return byCount != 0 ? byCount : Long.compare(agentId, other.agentId);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Slot)) {
+                return false;
+            }
+            Slot other = (Slot) o;
+            return agentId == other.agentId && load == other.load;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(agentId) * 31 + load;
+        }
+    }
+}
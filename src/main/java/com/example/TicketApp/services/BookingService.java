@@ -27,13 +27,15 @@ public class BookingService {
     }
 
     public boolean validateBooking(long userId, long bookingId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User  not found"));
+        if (!userRepository.existsById(userId)) {
+            throw new UserNotFoundException("User  not found");
+        }
 
-        Booking booking = bookingRepository.findById(bookingId)
+        // Only the owner id is needed, so neither the booking nor its user is loaded
+        Long ownerId = bookingRepository.findOwnerIdByBookingId(bookingId)
                 .orElseThrow(() -> new BookingNotFoundException("Booking not found"));
 
-        if (booking.getUser () == null || !booking.getUser ().getUserId().equals(user.getUserId())) {
+        if (ownerId != userId) {
             throw new UserNotAuthorizedException("User  is not authorized to access this booking");
         }
 
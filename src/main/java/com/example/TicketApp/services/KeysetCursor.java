@@ -0,0 +1,51 @@
+package com.example.TicketApp.services;
+
+import com.example.TicketApp.customErrors.InvalidRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque position in a list ordered by (createdAt, id). Clients only ever see the encoded string.
+ */
+public class KeysetCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime createdAt;
+    private final Long id;
+
+    public KeysetCursor(LocalDateTime createdAt, Long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int split = raw.lastIndexOf(SEPARATOR);
+            if (split < 0) {
+                throw new InvalidRequestException("Invalid cursor");
+            }
+            return new KeysetCursor(LocalDateTime.parse(raw.substring(0, split)),
+                    Long.parseLong(raw.substring(split + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidRequestException("Invalid cursor");
+        }
+    }
+}
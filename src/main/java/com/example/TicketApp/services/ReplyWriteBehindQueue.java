@@ -0,0 +1,204 @@
+package com.example.TicketApp.services;
+
+import com.example.TicketApp.DTO.PendingReplyDTO;
+import com.example.TicketApp.customErrors.ServiceOverloadedException;
+import com.example.TicketApp.entity.ReplyDeadLetter;
+import com.example.TicketApp.repository.ReplyDeadLetterRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Optional write-behind path for ticket replies.
+ * <p>
+ * Replies are validated on the request thread, then queued. A single writer thread drains the queue in batches of
+ * up to {@code batch-size} rows or {@code max-delay-ms}, whichever comes first, and writes each batch in one
+ * transaction. One FIFO queue and one writer keep replies in arrival order for every ticket. A full queue rejects
+ * new replies instead of growing.
+ * <p>
+ * Shutdown first closes admission under the write lock that {@link #accept} queues under, so every reply that got
+ * an accepted id is in the queue before the writer is told to stop, and the writer drains the queue before it
+ * exits. A reply that fails on its own after its batch failed is written to {@code reply_dead_letter}.
+ */
+@Service
+public class ReplyWriteBehindQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplyWriteBehindQueue.class);
+
+    private final TicketResponseService ticketResponseService;
+    private final ReplyDeadLetterRepository replyDeadLetterRepository;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long maxDelayMs;
+    private final long offerTimeoutMs;
+    private final BlockingQueue<PendingReplyDTO> queue;
+    // accept() queues under the read lock; shutdown() closes admission under the write lock
+    private final ReadWriteLock admission = new ReentrantReadWriteLock();
+
+    private boolean accepting;  // guarded by admission
+    private volatile boolean running;
+    private Thread writer;
+
+    @Autowired
+    public ReplyWriteBehindQueue(TicketResponseService ticketResponseService,
+                                 ReplyDeadLetterRepository replyDeadLetterRepository,
+                                 @Value("${ticket.reply.async.enabled:false}") boolean enabled,
+                                 @Value("${ticket.reply.async.queue-capacity:10000}") int queueCapacity,
+                                 @Value("${ticket.reply.async.batch-size:200}") int batchSize,
+                                 @Value("${ticket.reply.async.max-delay-ms:20}") long maxDelayMs,
+                                 @Value("${ticket.reply.async.offer-timeout-ms:50}") long offerTimeoutMs) {
+        this.ticketResponseService = ticketResponseService;
+        this.replyDeadLetterRepository = replyDeadLetterRepository;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxDelayMs = maxDelayMs;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        accepting = true;
+        writer = new Thread(this::drainLoop, "reply-writer");
+        writer.start();
+        logger.info("Write-behind reply ingestion started (batch size {}, max delay {} ms)", batchSize, maxDelayMs);
+    }
+
+    /**
+     * Validates the reply and queues it. Returns the id the client can use to correlate the reply.
+     */
+    public String accept(long ticketId, long userId, String role, Map<String, Object> replyData) {
+        ticketResponseService.validateNewReply(ticketId, userId, role, replyData);
+
+        PendingReplyDTO reply = new PendingReplyDTO(UUID.randomUUID().toString(), ticketId, userId, role,
+                replyData.get("responseText").toString());
+        admission.readLock().lock();
+        try {
+            if (!accepting) {
+                throw new ServiceOverloadedException("Reply ingestion is not accepting replies");
+            }
+            if (!queue.offer(reply, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new ServiceOverloadedException("Reply queue is full, retry later");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceOverloadedException("Interrupted while queueing reply");
+        } finally {
+            admission.readLock().unlock();
+        }
+        return reply.getAcceptedId();
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        // Waits for accept() calls that are queueing; none can queue afterwards
+        admission.writeLock().lock();
+        try {
+            accepting = false;
+        } finally {
+            admission.writeLock().unlock();
+        }
+        running = false;
+        // The writer exits once the queue is empty
+        writer.join();
+        logger.info("Write-behind reply ingestion stopped");
+    }
+
+    private void drainLoop() {
+        List<PendingReplyDTO> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingReplyDTO first = queue.poll(maxDelayMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingReplyDTO next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Keep draining; shutdown is signalled through running
+                Thread.interrupted();
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<PendingReplyDTO> batch) {
+        try {
+            ticketResponseService.createTicketReplies(batch);
+        } catch (Exception e) {
+            // One bad row must not lose the rest of the batch
+            logger.error("Batch of {} replies failed, retrying one by one: {}", batch.size(), e.getMessage(), e);
+            for (PendingReplyDTO reply : batch) {
+                try {
+                    ticketResponseService.createTicketReplies(Collections.singletonList(reply));
+                } catch (Exception single) {
+                    deadLetter(reply, single);
+                }
+            }
+        }
+    }
+
+    // The client already has a 202 for this reply, so it is kept rather than dropped
+    private void deadLetter(PendingReplyDTO reply, Exception cause) {
+        logger.error("Reply {} for ticket ID {} failed, dead-lettering it: {}", reply.getAcceptedId(),
+                reply.getTicketId(), cause.getMessage(), cause);
+        ReplyDeadLetter deadLetter = new ReplyDeadLetter();
+        deadLetter.setAcceptedId(reply.getAcceptedId());
+        deadLetter.setTicketId(reply.getTicketId());
+        deadLetter.setUserId(reply.getUserId());
+        deadLetter.setRole(reply.getRole());
+        deadLetter.setResponseText(reply.getResponseText());
+        String error = String.valueOf(cause);
+        deadLetter.setError(error.length() > 1000 ? error.substring(0, 1000) : error);
+        deadLetter.setFailedAt(LocalDateTime.now());
+        try {
+            replyDeadLetterRepository.save(deadLetter);
+        } catch (Exception e) {
+            // Last resort: the log line carries everything needed to replay the reply by hand
+            logger.error("Could not dead-letter reply {}; lost reply was {}: {}", reply.getAcceptedId(), reply,
+                    e.getMessage(), e);
+        }
+    }
+}
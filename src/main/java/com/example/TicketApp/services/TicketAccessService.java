@@ -0,0 +1,97 @@
+package com.example.TicketApp.services;
+
+import com.example.TicketApp.repository.TicketRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Answers "is this user the customer or agent of this ticket?" from ids only.
+ * <p>
+ * Entity {@code equals} on {@code User} compares every collection, so comparing entities can pull in a user's
+ * whole history. Here a ticket's participants are kept as two ids in a bounded cache, and a miss costs one
+ * primary-key lookup on {@code tickets}.
+ */
+@Service
+public class TicketAccessService {
+
+    private final TicketRepository ticketRepository;
+    private final Cache<Long, Participants> participants;
+
+    @Autowired
+    public TicketAccessService(TicketRepository ticketRepository,
+                               @Value("${ticket.access.cache.max-size:100000}") long maxSize) {
+        this.ticketRepository = ticketRepository;
+        this.participants = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    public Optional<Participants> findParticipants(long ticketId) {
+        Participants cached = participants.getIfPresent(ticketId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        List<Object[]> rows = ticketRepository.findParticipantIds(ticketId);
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        Object[] row = rows.get(0);
+        Participants loaded = new Participants((Long) row[0], (Long) row[1]);
+        participants.put(ticketId, loaded);
+        return Optional.of(loaded);
+    }
+
+    public boolean isParticipant(long userId, long ticketId) {
+        return findParticipants(ticketId).map(p -> p.isCustomer(userId) || p.isAgent(userId)).orElse(false);
+    }
+
+    public boolean isCustomer(long userId, long ticketId) {
+        return findParticipants(ticketId).map(p -> p.isCustomer(userId)).orElse(false);
+    }
+
+    public boolean isAgent(long userId, long ticketId) {
+        return findParticipants(ticketId).map(p -> p.isAgent(userId)).orElse(false);
+    }
+
+    // Called after a ticket is inserted so the first read does not miss
+    public void register(long ticketId, Long customerId, Long agentId) {
+        participants.put(ticketId, new Participants(customerId, agentId));
+    }
+
+    public void evict(long ticketId) {
+        participants.invalidate(ticketId);
+    }
+
+    public static final class Participants {
+        private final Long customerId;
+        private final Long agentId;
+
+        public Participants(Long customerId, Long agentId) {
+            this.customerId = customerId;
+            this.agentId = agentId;
+        }
+
+        public Long getCustomerId() {
+            return customerId;
+        }
+
+        public Long getAgentId() {
+            return agentId;
+        }
+
+        public boolean isCustomer(long userId) {
+            return Objects.equals(customerId, userId);
+        }
+
+        public boolean isAgent(long userId) {
+            return agentId != null && agentId == userId;
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.example.TicketApp.services;
+
+import com.example.TicketApp.DTO.TicketChangeEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * In-process fan-out of committed ticket changes, fed by {@link TicketOutbox}.
+ * <p>
+ * Every subscriber has its own queue and is drained by at most one thread at a time, so it sees events in
+ * publish order while a slow subscriber only delays itself. Publishing, queueing and draining take no locks:
+ * queues are {@link ConcurrentLinkedQueue}s and a compare-and-set on each subscriber decides who drains it.
+ * A subscriber that throws is given the same event again, up to {@code ticket.feed.max-attempts} times with a
+ * doubling backoff, before later events; every failure is counted in {@code ticketapp.ticket.changes.failed}. An
+ * event it still fails on is returned from {@link #publish} as a {@link DeadLetter} so the caller can keep it.
+ */
+@Service
+public class TicketChangeFeed {
+
+    public static final String PUBLISHED_METRIC = "ticketapp.ticket.changes";
+    public static final String FAILED_METRIC = "ticketapp.ticket.changes.failed";
+    public static final String DEAD_LETTER_METRIC = "ticketapp.ticket.changes.dead_lettered";
+
+    private static final Logger logger = LoggerFactory.getLogger(TicketChangeFeed.class);
+
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final ExecutorService executor;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+
+    @Autowired
+    public TicketChangeFeed(MeterRegistry meterRegistry,
+                            @Value("${ticket.feed.max-attempts:5}") int maxAttempts,
+                            @Value("${ticket.feed.retry-backoff-ms:100}") long retryBackoffMs) {
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMs = retryBackoffMs;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("ticket-feed-");
+        threadFactory.setDaemon(true);
+        this.executor = Executors.newCachedThreadPool(threadFactory);
+    }
+
+    /**
+     * Registers {@code handler} for every change published from now on. Close the returned subscription to stop.
+     */
+    public Subscription subscribe(String name, Consumer<TicketChangeEvent> handler) {
+        Subscription subscription = new Subscription(name, handler);
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    /**
+     * Queues {@code events} for every current subscriber.
+     *
+     * @return completes once every subscriber has handled or given up on every event, with the ones given up on;
+     * completes exceptionally if the feed shut down first
+     */
+    public CompletableFuture<List<DeadLetter>> publish(List<TicketChangeEvent> events) {
+        for (TicketChangeEvent event : events) {
+            count(PUBLISHED_METRIC, "type", event.getType().name());
+        }
+        List<CompletableFuture<List<DeadLetter>>> handled = new ArrayList<>();
+        // Iterates a snapshot: a subscriber added meanwhile only sees later batches
+        for (Subscription subscription : subscriptions) {
+            handled.add(subscription.offer(events));
+        }
+        return CompletableFuture.allOf(handled.toArray(new CompletableFuture<?>[0])).thenApply(done -> {
+            List<DeadLetter> deadLetters = new ArrayList<>();
+            for (CompletableFuture<List<DeadLetter>> subscriber : handled) {
+                deadLetters.addAll(subscriber.join());
+            }
+            return deadLetters;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();  // interrupts retry backoffs; their batches stay in the outbox
+    }
+
+    private void count(String metric, String tag, String value) {
+        counters.computeIfAbsent(metric + '/' + value, k -> Counter.builder(metric)
+                        .tag(tag, value)
+                        .register(meterRegistry))
+                .increment();
+    }
+
+    public final class Subscription implements AutoCloseable {
+        private final String name;
+        private final Consumer<TicketChangeEvent> handler;
+        private final Queue<Delivery> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        private Subscription(String name, Consumer<TicketChangeEvent> handler) {
+            this.name = name;
+            this.handler = handler;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getQueuedBatches() {
+            return queue.size();
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            subscriptions.remove(this);
+            scheduleDrain();  // completes whatever is still queued without handling it
+        }
+
+        private CompletableFuture<List<DeadLetter>> offer(List<TicketChangeEvent> events) {
+            Delivery delivery = new Delivery(events);
+            queue.add(delivery);
+            scheduleDrain();
+            return delivery.handled;
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Delivery delivery;
+                while ((delivery = queue.poll()) != null) {
+                    List<DeadLetter> deadLetters = new ArrayList<>();
+                    try {
+                        for (TicketChangeEvent event : delivery.events) {
+                            if (closed) {
+                                break;
+                            }
+                            handle(event, deadLetters);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        delivery.handled.completeExceptionally(e);
+                        while ((delivery = queue.poll()) != null) {
+                            delivery.handled.completeExceptionally(e);
+                        }
+                        return;
+                    }
+                    delivery.handled.complete(deadLetters);
+                }
+            } finally {
+                draining.set(false);
+                // An offer that lost the race with the end of this drain left its batch for us
+                if (!queue.isEmpty() && !executor.isShutdown()) {
+                    scheduleDrain();
+                }
+            }
+        }
+
+        private void handle(TicketChangeEvent event, List<DeadLetter> deadLetters) throws InterruptedException {
+            long backoffMs = retryBackoffMs;
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    handler.accept(event);
+                    return;
+                } catch (RuntimeException e) {
+                    count(FAILED_METRIC, "subscriber", name);
+                    if (closed) {
+                        return;
+                    }
+                    if (attempt >= maxAttempts) {
+                        logger.error("Change feed subscriber {} gave up on event {} after {} attempts: {}",
+                                name, event, attempt, e.getMessage(), e);
+                        count(DEAD_LETTER_METRIC, "subscriber", name);
+                        deadLetters.add(new DeadLetter(name, event, e.toString()));
+                        return;
+                    }
+                    logger.warn("Change feed subscriber {} failed on event {} (attempt {} of {}), retrying in {} ms: {}",
+                            name, event, attempt, maxAttempts, backoffMs, e.getMessage());
+                    Thread.sleep(backoffMs);
+                    backoffMs *= 2;
+                }
+            }
+        }
+    }
+
+    /**
+     * An event a subscriber still failed on after its last attempt.
+     */
+    public static final class DeadLetter {
+        private final String subscriber;
+        private final TicketChangeEvent event;
+        private final String error;
+
+        private DeadLetter(String subscriber, TicketChangeEvent event, String error) {
+            this.subscriber = subscriber;
+            this.event = event;
+            this.error = error;
+        }
+
+        public String getSubscriber() {
+            return subscriber;
+        }
+
+        public TicketChangeEvent getEvent() {
+            return event;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+
+    private static final class Delivery {
+        private final List<TicketChangeEvent> events;
+        private final CompletableFuture<List<DeadLetter>> handled = new CompletableFuture<>();
+
+        private Delivery(List<TicketChangeEvent> events) {
+            this.events = events;
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.example.TicketApp.services;
+
+import com.example.TicketApp.DTO.SimpleTicketDTO;
+import com.example.TicketApp.DTO.TicketExportDTO;
+import com.example.TicketApp.DTO.TicketResponseDTO;
+import com.example.TicketApp.customErrors.InvalidRequestException;
+import com.example.TicketApp.customErrors.UserNotFoundException;
+import com.example.TicketApp.entity.Ticket;
+import com.example.TicketApp.repository.TicketRepository;
+import com.example.TicketApp.repository.TicketResponseRepository;
+import com.example.TicketApp.repository.UserRespository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Streams every ticket of an agent or customer, optionally with replies, as NDJSON or CSV.
+ * <p>
+ * Tickets and replies are read through two forward-only cursors ordered by ticket id and merged while writing, so
+ * memory holds one fetch block per cursor plus the reply thread of the current ticket, whatever the export size.
+ * The database connection stays checked out until the last row is written.
+ */
+@Service
+public class TicketExportService {
+
+    private static final int CLEAR_EVERY = Integer.parseInt(TicketRepository.EXPORT_FETCH_SIZE);
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final String CSV_HEADER = "type,ticketId,responseId,status,category,role,createdAt,updatedAt," +
+            "agentEmail,customerEmail,authorEmail,text";
+
+    private final UserRespository userRespository;
+    private final TicketRepository ticketRepository;
+    private final TicketResponseRepository ticketResponseRepository;
+    private final ObjectWriter ndjsonWriter;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public TicketExportService(UserRespository userRespository, TicketRepository ticketRepository,
+                               TicketResponseRepository ticketResponseRepository, ObjectMapper objectMapper) {
+        this.userRespository = userRespository;
+        this.ticketRepository = ticketRepository;
+        this.ticketResponseRepository = ticketResponseRepository;
+        this.objectMapper = objectMapper;
+        this.ndjsonWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Validates the request before any bytes are written, so errors can still become a 4xx status.
+     */
+    public ExportQuery prepare(long userId, String role, String status, String category) {
+        boolean agent = "AGENT".equalsIgnoreCase(role);
+        if (!agent && !"CUSTOMER".equalsIgnoreCase(role)) {
+            throw new InvalidRequestException("Invalid role. Must be 'AGENT' or 'CUSTOMER'.");
+        }
+        List<Ticket.Status> statuses = TicketService.parseStatuses(status);
+        List<Ticket.Category> categories = TicketService.parseCategories(category);
+        if (!userRespository.existsById(userId)) {
+            throw new UserNotFoundException("User  not found with ID: " + userId);
+        }
+        return new ExportQuery(userId, agent, statuses, categories);
+    }
+
+    @Transactional(readOnly = true)
+    public void write(ExportQuery query, boolean includeReplies, Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        try (Stream<SimpleTicketDTO> tickets = streamTickets(query);
+             Stream<TicketResponseDTO> replies = includeReplies ? streamReplies(query) : Stream.empty()) {
+            if (format == Format.CSV) {
+                writeCsv(tickets.iterator(), replies.iterator(), includeReplies, writer);
+            } else {
+                writeNdjson(tickets.iterator(), replies.iterator(), includeReplies, writer);
+            }
+        }
+        writer.flush();
+    }
+
+    private Stream<SimpleTicketDTO> streamTickets(ExportQuery query) {
+        return query.agent
+                ? ticketRepository.streamAgentTickets(query.userId, query.statuses, query.categories)
+                : ticketRepository.streamCustomerTickets(query.userId, query.statuses, query.categories);
+    }
+
+    private Stream<TicketResponseDTO> streamReplies(ExportQuery query) {
+        return query.agent
+                ? ticketResponseRepository.streamAgentThreads(query.userId, query.statuses, query.categories)
+                : ticketResponseRepository.streamCustomerThreads(query.userId, query.statuses, query.categories);
+    }
+
+    private void writeNdjson(Iterator<SimpleTicketDTO> tickets, Iterator<TicketResponseDTO> replies,
+                             boolean includeReplies, Writer writer) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(new SerializedString("\n"));
+
+        ThreadReader threads = new ThreadReader(replies);
+        long written = 0;
+        while (tickets.hasNext()) {
+            SimpleTicketDTO ticket = tickets.next();
+            List<TicketResponseDTO> thread = includeReplies ? threads.next(ticket.getTicketId()) : null;
+            ndjsonWriter.writeValue(generator, new TicketExportDTO(ticket, thread));
+            if (++written % CLEAR_EVERY == 0) {
+                entityManager.clear();
+            }
+        }
+        if (written > 0) {
+            generator.writeRaw('\n');
+        }
+        // Leaves the writer open: AUTO_CLOSE_TARGET is off
+        generator.close();
+    }
+
+    private void writeCsv(Iterator<SimpleTicketDTO> tickets, Iterator<TicketResponseDTO> replies,
+                          boolean includeReplies, Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+
+        ThreadReader threads = new ThreadReader(replies);
+        long written = 0;
+        while (tickets.hasNext()) {
+            SimpleTicketDTO ticket = tickets.next();
+            writeCsvRow(writer, "ticket", ticket.getTicketId(), null, ticket.getStatus(), ticket.getCategory(), null,
+                    ticket.getCreatedAt(), ticket.getUpdatedAt(), ticket.getAgentEmail(), ticket.getUserEmail(), null,
+                    ticket.getDescription());
+            if (includeReplies) {
+                for (TicketResponseDTO reply : threads.next(ticket.getTicketId())) {
+                    writeCsvRow(writer, "reply", reply.getTicketId(), reply.getResponseId(), null, null, reply.getRole(),
+                            reply.getResponseTime(), null, reply.getAgentEmail(), null, reply.getUserEmail(),
+                            reply.getResponseText());
+                }
+            }
+            if (++written % CLEAR_EVERY == 0) {
+                entityManager.clear();
+            }
+        }
+    }
+
+    private void writeCsvRow(Writer writer, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object value = values[i];
+            if (value instanceof LocalDateTime || value instanceof Number) {
+                writer.write(value.toString());
+            } else if (value != null) {
+                writeCsvText(writer, value.toString());
+            }
+        }
+        writer.write('\n');
+    }
+
+    // RFC 4180: quote when the value holds a delimiter, quote or line break, and double embedded quotes
+    private void writeCsvText(Writer writer, String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    /**
+     * Hands out the replies of one ticket at a time from a cursor ordered by ticket id. Replies of tickets the
+     * ticket cursor did not return (created between the two statements) are skipped.
+     */
+    private static final class ThreadReader {
+
+        private final Iterator<TicketResponseDTO> replies;
+        private TicketResponseDTO pending;
+
+        ThreadReader(Iterator<TicketResponseDTO> replies) {
+            this.replies = replies;
+            this.pending = replies.hasNext() ? replies.next() : null;
+        }
+
+        List<TicketResponseDTO> next(long ticketId) {
+            while (pending != null && pending.getTicketId() < ticketId) {
+                advance();
+            }
+            if (pending == null || pending.getTicketId() != ticketId) {
+                return Collections.emptyList();
+            }
+            List<TicketResponseDTO> thread = new ArrayList<>();
+            while (pending != null && pending.getTicketId() == ticketId) {
+                thread.add(pending);
+                advance();
+            }
+            return thread;
+        }
+
+        private void advance() {
+            pending = replies.hasNext() ? replies.next() : null;
+        }
+    }
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final MediaType mediaType;
+        private final String extension;
+
+        Format(String mediaType, String extension) {
+            this.mediaType = MediaType.parseMediaType(mediaType + ";charset=UTF-8");
+            this.extension = extension;
+        }
+
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format parse(String value) {
+            for (Format format : values()) {
+                if (format.extension.equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new InvalidRequestException("Invalid format. Must be 'ndjson' or 'csv'.");
+        }
+    }
+
+    public static final class ExportQuery {
+
+        private final long userId;
+        private final boolean agent;
+        private final List<Ticket.Status> statuses;
+        private final List<Ticket.Category> categories;
+
+        private ExportQuery(long userId, boolean agent, List<Ticket.Status> statuses, List<Ticket.Category> categories) {
+            this.userId = userId;
+            this.agent = agent;
+            this.statuses = statuses;
+            this.categories = categories;
+        }
+
+        public long getUserId() {
+            return userId;
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package com.example.TicketApp.services;
+
+import com.example.TicketApp.DTO.TicketChangeEvent;
+import com.example.TicketApp.entity.TicketOutboxDeadLetter;
+import com.example.TicketApp.entity.TicketOutboxEvent;
+import com.example.TicketApp.entity.TicketOutboxLease;
+import com.example.TicketApp.repository.TicketOutboxDeadLetterRepository;
+import com.example.TicketApp.repository.TicketOutboxLeaseRepository;
+import com.example.TicketApp.repository.TicketOutboxRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Transactional outbox for ticket changes.
+ * <p>
+ * {@link #record} adds a {@code ticket_outbox} row in the caller's transaction, so a change and its event commit
+ * or roll back together. A single relay thread reads the oldest rows, publishes them to {@link TicketChangeFeed},
+ * waits until every subscriber has handled them and only then deletes them. A crash or shutdown before the delete
+ * means the batch is published again after restart: delivery is at least once, in event id order. Events that a
+ * subscriber still failed on after the feed's retries are written to {@code ticket_outbox_dead_letter} in the
+ * transaction that deletes the batch. Events of transactions that overlap can be numbered in a different order
+ * than they commit; events of one ticket are in order as long as its writes do not overlap.
+ * <p>
+ * With several application instances only one relays at a time: the one holding the {@code ticket_outbox_lease}
+ * row, which it renews while it runs. The others keep recording events and one of them takes over once the holder
+ * has not renewed for {@code ticket.outbox.lease-ms}. The delete renews the lease in its own transaction, so an
+ * instance that lost the lease mid-batch leaves the rows to the new holder. Instance clocks have to agree to well
+ * within the lease; {@code ticketapp.outbox.relay.leader} is 1 on the instance relaying.
+ * <p>
+ * The relay polls every {@code ticket.outbox.poll-interval-ms} and is also woken by each commit that recorded an
+ * event. A subscriber that never returns stalls the feed; {@code ticketapp.outbox.pending.age} is how long the
+ * batch in flight has been waiting.
+ */
+@Service
+public class TicketOutbox {
+
+    public static final String PENDING_AGE_METRIC = "ticketapp.outbox.pending.age";
+    public static final String LEADER_METRIC = "ticketapp.outbox.relay.leader";
+
+    static final String LEASE_NAME = "ticket-outbox-relay";
+
+    private static final Logger logger = LoggerFactory.getLogger(TicketOutbox.class);
+
+    private final TicketOutboxRepository ticketOutboxRepository;
+    private final TicketOutboxDeadLetterRepository ticketOutboxDeadLetterRepository;
+    private final TicketOutboxLeaseRepository ticketOutboxLeaseRepository;
+    private final TicketChangeFeed ticketChangeFeed;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean relayEnabled;
+    private final int batchSize;
+    private final long pollIntervalMs;
+    private final long stallWarningMs;
+    private final long leaseMs;
+    private final String owner = ManagementFactory.getRuntimeMXBean().getName() + '/' + UUID.randomUUID();
+    // Nanotime at which the batch being relayed was read; 0 when idle
+    private final AtomicLong relayingSince = new AtomicLong();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile boolean running;
+    private volatile Thread relay;
+    // When the lease this instance holds runs out; null when it holds none
+    private volatile LocalDateTime leaseExpiresAt;
+
+    @Autowired
+    public TicketOutbox(TicketOutboxRepository ticketOutboxRepository,
+                        TicketOutboxDeadLetterRepository ticketOutboxDeadLetterRepository,
+                        TicketOutboxLeaseRepository ticketOutboxLeaseRepository, TicketChangeFeed ticketChangeFeed,
+                        PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                        @Value("${ticket.outbox.relay.enabled:true}") boolean relayEnabled,
+                        @Value("${ticket.outbox.batch-size:500}") int batchSize,
+                        @Value("${ticket.outbox.poll-interval-ms:200}") long pollIntervalMs,
+                        @Value("${ticket.outbox.stall-warning-ms:10000}") long stallWarningMs,
+                        @Value("${ticket.outbox.lease-ms:30000}") long leaseMs) {
+        this.ticketOutboxRepository = ticketOutboxRepository;
+        this.ticketOutboxDeadLetterRepository = ticketOutboxDeadLetterRepository;
+        this.ticketOutboxLeaseRepository = ticketOutboxLeaseRepository;
+        this.ticketChangeFeed = ticketChangeFeed;
+        // Read-write, so the relay always reads and deletes on the primary
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.relayEnabled = relayEnabled;
+        this.batchSize = batchSize;
+        this.pollIntervalMs = pollIntervalMs;
+        this.stallWarningMs = stallWarningMs;
+        this.leaseMs = leaseMs;
+        Gauge.builder(PENDING_AGE_METRIC, relayingSince, since -> {
+            long start = since.get();
+            return start == 0 ? 0 : (System.nanoTime() - start) / 1e9;
+        }).baseUnit("seconds").register(meterRegistry);
+        Gauge.builder(LEADER_METRIC, this, outbox -> outbox.leaseExpiresAt != null ? 1 : 0).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!relayEnabled) {
+            return;
+        }
+        running = true;
+        relay = new Thread(this::relayLoop, "outbox-relay");
+        relay.setDaemon(true);
+        relay.start();
+        logger.info("Ticket outbox relay started (batch size {}, poll interval {} ms)", batchSize, pollIntervalMs);
+    }
+
+    /**
+     * Writes the event in the current transaction; there must be one.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(TicketOutboxEvent.Type type, long ticketId, Long responseId, Long userId) {
+        TicketOutboxEvent event = new TicketOutboxEvent();
+        event.setChangeType(type);
+        event.setTicketId(ticketId);
+        event.setResponseId(responseId);
+        event.setUserId(userId);
+        event.setOccurredAt(LocalDateTime.now());
+        entityManager.persist(event);
+
+        Thread target = relay;
+        if (target != null) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    LockSupport.unpark(target);
+                }
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (relay == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(relay);
+        relay.join(TimeUnit.SECONDS.toMillis(30));
+        if (leaseExpiresAt != null) {
+            try {
+                // Lets another instance take over without waiting for the lease to run out
+                transactionTemplate.executeWithoutResult(status ->
+                        ticketOutboxLeaseRepository.release(LEASE_NAME, owner, LocalDateTime.now()));
+            } catch (RuntimeException e) {
+                logger.warn("Could not release the outbox relay lease: {}", e.getMessage());
+            }
+            leaseExpiresAt = null;
+        }
+        logger.info("Ticket outbox relay stopped");
+    }
+
+    private void relayLoop() {
+        while (running) {
+            int relayed = 0;
+            try {
+                relayed = relayBatch();
+            } catch (Exception e) {
+                logger.error("Outbox relay failed, retrying: {}", e.getMessage(), e);
+            }
+            if (relayed < batchSize) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(pollIntervalMs));
+            }
+        }
+    }
+
+    // Publishes and then deletes the oldest batch; returns its size
+    int relayBatch() throws InterruptedException {
+        if (!holdLease()) {
+            return 0;  // another instance is relaying
+        }
+        List<TicketOutboxEvent> rows = transactionTemplate.execute(status ->
+                ticketOutboxRepository.findOldest(PageRequest.of(0, batchSize)));
+        if (rows == null || rows.isEmpty()) {
+            return 0;
+        }
+        relayingSince.set(System.nanoTime());
+        List<TicketChangeEvent> events = new ArrayList<>(rows.size());
+        List<Long> eventIds = new ArrayList<>(rows.size());
+        for (TicketOutboxEvent row : rows) {
+            events.add(TicketChangeEvent.of(row));
+            eventIds.add(row.getEventId());
+        }
+
+        CompletableFuture<List<TicketChangeFeed.DeadLetter>> handled = ticketChangeFeed.publish(events);
+        List<TicketChangeFeed.DeadLetter> deadLetters;
+        while (true) {
+            try {
+                deadLetters = handled.get(stallWarningMs, TimeUnit.MILLISECONDS);
+                break;
+            } catch (TimeoutException e) {
+                if (!running || !renewLease()) {
+                    return 0;  // left in the table and published again by whoever holds the lease
+                }
+                logger.warn("Change feed subscribers have not handled events {}..{} after {} ms",
+                        eventIds.get(0), eventIds.get(eventIds.size() - 1), stallWarningMs);
+            } catch (ExecutionException e) {
+                // The feed shut down mid-batch; left in the table and published again after restart
+                logger.warn("Change feed stopped before handling events {}..{}: {}",
+                        eventIds.get(0), eventIds.get(eventIds.size() - 1), e.getCause().toString());
+                return 0;
+            }
+        }
+
+        List<TicketOutboxDeadLetter> failed = toRows(deadLetters);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(leaseMs, ChronoUnit.MILLIS);
+        Boolean deleted = transactionTemplate.execute(status -> {
+            if (ticketOutboxLeaseRepository.claim(LEASE_NAME, owner, now, expiresAt) == 0) {
+                return false;
+            }
+            if (!failed.isEmpty()) {
+                ticketOutboxDeadLetterRepository.saveAll(failed);
+            }
+            ticketOutboxRepository.deleteByEventIds(eventIds);
+            return true;
+        });
+        relayingSince.set(0);
+        if (!Boolean.TRUE.equals(deleted)) {
+            logger.warn("Lost the outbox relay lease while relaying events {}..{}; leaving them to its new holder",
+                    eventIds.get(0), eventIds.get(eventIds.size() - 1));
+            leaseExpiresAt = null;
+            return 0;
+        }
+        leaseExpiresAt = expiresAt;
+        return rows.size();
+    }
+
+    // True if this instance holds the relay lease; renews it once less than half of it is left
+    private boolean holdLease() {
+        LocalDateTime expiresAt = leaseExpiresAt;
+        if (expiresAt != null && LocalDateTime.now().plus(leaseMs / 2, ChronoUnit.MILLIS).isBefore(expiresAt)) {
+            return true;
+        }
+        return renewLease();
+    }
+
+    private boolean renewLease() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(leaseMs, ChronoUnit.MILLIS);
+        boolean held;
+        try {
+            held = Boolean.TRUE.equals(transactionTemplate.execute(status -> claimLease(now, expiresAt)));
+        } catch (DataIntegrityViolationException e) {
+            held = false;  // another instance created the lease row first
+        }
+        if (held && leaseExpiresAt == null) {
+            logger.info("This instance now relays the ticket outbox as {}", owner);
+        } else if (!held && leaseExpiresAt != null) {
+            logger.warn("Lost the outbox relay lease; {} stands by", owner);
+        }
+        leaseExpiresAt = held ? expiresAt : null;
+        return held;
+    }
+
+    private boolean claimLease(LocalDateTime now, LocalDateTime expiresAt) {
+        if (ticketOutboxLeaseRepository.claim(LEASE_NAME, owner, now, expiresAt) == 1) {
+            return true;
+        }
+        if (ticketOutboxLeaseRepository.existsById(LEASE_NAME)) {
+            return false;
+        }
+        TicketOutboxLease lease = new TicketOutboxLease();
+        lease.setLeaseName(LEASE_NAME);
+        lease.setOwner(owner);
+        lease.setExpiresAt(expiresAt);
+        ticketOutboxLeaseRepository.saveAndFlush(lease);
+        return true;
+    }
+
+    private static List<TicketOutboxDeadLetter> toRows(List<TicketChangeFeed.DeadLetter> deadLetters) {
+        LocalDateTime now = LocalDateTime.now();
+        List<TicketOutboxDeadLetter> rows = new ArrayList<>(deadLetters.size());
+        for (TicketChangeFeed.DeadLetter deadLetter : deadLetters) {
+            TicketChangeEvent event = deadLetter.getEvent();
+            TicketOutboxDeadLetter row = new TicketOutboxDeadLetter();
+            row.setEventId(event.getEventId());
+            row.setSubscriber(deadLetter.getSubscriber());
+            row.setTicketId(event.getTicketId());
+            row.setChangeType(event.getType());
+            row.setResponseId(event.getResponseId());
+            row.setUserId(event.getUserId());
+            row.setOccurredAt(event.getOccurredAt());
+            String error = deadLetter.getError();
+            row.setError(error.length() > 1000 ? error.substring(0, 1000) : error);
+            row.setFailedAt(now);
+            rows.add(row);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.TicketApp.services;
+
+import com.example.TicketApp.config.ReplicaRoutingContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight for ticket reads: concurrent callers of the same read of the same ticket share one in-flight
+ * computation instead of each running the same queries. Nothing is kept once the computation completes, so this
+ * is not a cache; it only collapses overlapping work.
+ * <p>
+ * Shared results are handed to every caller and must be treated as read-only. Permission checks stay with each
+ * caller, outside the shared work. A write to a ticket calls {@link #invalidate(long)} when it commits, so callers
+ * that arrive afterwards start a fresh read rather than joining one that may have missed the write.
+ * {@code ticketapp.ticket.reads.coalesced} counts calls per operation, tagged {@code leader} or {@code joined}.
+ */
+@Service
+public class TicketReadCoalescer {
+
+    public static final String METRIC_NAME = "ticketapp.ticket.reads.coalesced";
+
+    private final Map<Key, CompletableFuture<?>> inFlight = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TicketReadCoalescer(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Joins the in-flight read for {@code (operation, ticketId, arguments)} or starts it with {@code read}.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> coalesce(String operation, long ticketId, String arguments,
+                                             Supplier<CompletableFuture<T>> read) {
+        // A caller pinned to the primary for read-your-writes must not join a read that may be served by a replica
+        Key key = new Key(operation, ticketId, arguments, ReplicaRoutingContext.isPrimaryRequired());
+        CompletableFuture<T> existing = (CompletableFuture<T>) inFlight.get(key);
+        if (existing != null) {
+            count(operation, "joined");
+            return existing;
+        }
+        CompletableFuture<T> mine = new CompletableFuture<>();
+        existing = (CompletableFuture<T>) inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            count(operation, "joined");
+            return existing;
+        }
+        count(operation, "leader");
+        try {
+            read.get().whenComplete((result, error) -> {
+                inFlight.remove(key, mine);
+                if (error == null) {
+                    mine.complete(result);
+                } else {
+                    mine.completeExceptionally(error);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, mine);
+            mine.completeExceptionally(e);
+        }
+        return mine;
+    }
+
+    /**
+     * {@link #coalesce} for blocking reads: the first caller runs {@code read} on its own thread and the others
+     * wait for it. Exceptions reach every caller unwrapped.
+     */
+    public <T> T call(String operation, long ticketId, String arguments, Supplier<T> read) {
+        CompletableFuture<T> result = coalesce(operation, ticketId, arguments, () -> {
+            try {
+                return CompletableFuture.completedFuture(read.get());
+            } catch (RuntimeException e) {
+                CompletableFuture<T> failed = new CompletableFuture<>();
+                failed.completeExceptionally(e);
+                return failed;
+            }
+        });
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Detaches every in-flight read of the ticket, after the current transaction commits if there is one.
+     */
+    public void invalidate(long ticketId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    detach(ticketId);
+                }
+            });
+        } else {
+            detach(ticketId);
+        }
+    }
+
+    private void detach(long ticketId) {
+        inFlight.keySet().removeIf(key -> key.ticketId == ticketId);
+    }
+
+    private void count(String operation, String role) {
+        counters.computeIfAbsent(operation + '/' + role, k -> Counter.builder(METRIC_NAME)
+                        .tag("operation", operation)
+                        .tag("role", role)
+                        .register(meterRegistry))
+                .increment();
+    }
+
+    private static final class Key {
+        private final String operation;
+        private final long ticketId;
+        private final String arguments;
+        private final boolean primary;
+
+        private Key(String operation, long ticketId, String arguments, boolean primary) {
+            this.operation = operation;
+            this.ticketId = ticketId;
+            this.arguments = arguments;
+            this.primary = primary;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return ticketId == other.ticketId && primary == other.primary && operation.equals(other.operation)
+                    && arguments.equals(other.arguments);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(operation, ticketId, arguments, primary);
+        }
+    }
+}
@@ -1,23 +1,34 @@
 package com.example.TicketApp.services;
 
+import com.example.TicketApp.DTO.PendingReplyDTO;
 import com.example.TicketApp.DTO.TicketResponseDTO;
 import com.example.TicketApp.entity.Ticket;
+import com.example.TicketApp.entity.TicketOutboxEvent;
 import com.example.TicketApp.entity.TicketResponse;
 import com.example.TicketApp.entity.User;
 import com.example.TicketApp.repository.TicketRepository;
 import com.example.TicketApp.repository.TicketResponseRepository;
 import com.example.TicketApp.repository.UserRespository;
+import com.example.TicketApp.config.ReadYourWritesTracker;
 import com.example.TicketApp.constants.ControllerConstants;
 import com.example.TicketApp.customErrors.InvalidRequestException;
 import com.example.TicketApp.customErrors.UnauthorizedAccessException;
 import com.example.TicketApp.customErrors.TicketNotFoundException;
+import com.example.TicketApp.customErrors.TicketResponseNotFoundException;
 import com.example.TicketApp.customErrors.UserNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Service
 public class TicketResponseService {
@@ -27,41 +38,100 @@ public class TicketResponseService {
     private final TicketRepository ticketRepository;
     private final TicketResponseRepository ticketResponseRepository;
     private final UserRespository userRespository;
+    private final AgentAssignmentPool agentAssignmentPool;
+    private final TicketAccessService ticketAccessService;
+    private final TicketSearchIndex ticketSearchIndex;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final TicketReadCoalescer ticketReadCoalescer;
+    private final TicketOutbox ticketOutbox;
 
     @Autowired
     public TicketResponseService(TicketRepository ticketRepository,
                                  TicketResponseRepository ticketResponseRepository,
-                                 UserRespository userRespository) {
+                                 UserRespository userRespository,
+                                 AgentAssignmentPool agentAssignmentPool,
+                                 TicketAccessService ticketAccessService,
+                                 TicketSearchIndex ticketSearchIndex,
+                                 ReadYourWritesTracker readYourWritesTracker,
+                                 TicketReadCoalescer ticketReadCoalescer,
+                                 TicketOutbox ticketOutbox) {
         this.ticketRepository = ticketRepository;
         this.ticketResponseRepository = ticketResponseRepository;
         this.userRespository = userRespository;
+        this.agentAssignmentPool = agentAssignmentPool;
+        this.ticketAccessService = ticketAccessService;
+        this.ticketSearchIndex = ticketSearchIndex;
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.ticketReadCoalescer = ticketReadCoalescer;
+        this.ticketOutbox = ticketOutbox;
     }
 
+    @Transactional
     public TicketResponseDTO createTicketReply(long ticketId, long userId, String role, Map<String, Object> replyData) {
+        validateNewReply(ticketId, userId, role, replyData);
+
+        TicketResponse savedResponse = insertReply(ticketId, userId, role, replyData.get("responseText").toString());
+        touchTicket(ticketId);
+
+        logger.info("Ticket response created successfully for ticket ID: {}", ticketId);
+
+        return mapToDTO(savedResponse);
+    }
+
+    /**
+     * Writes replies that were validated and accepted earlier, in list order, in one transaction.
+     * Each ticket's updatedAt is bumped once per batch.
+     */
+    @Transactional
+    public void createTicketReplies(List<PendingReplyDTO> replies) {
+        Set<Long> touched = new LinkedHashSet<>();
+        for (PendingReplyDTO reply : replies) {
+            insertReply(reply.getTicketId(), reply.getUserId(), reply.getRole(), reply.getResponseText());
+            touched.add(reply.getTicketId());
+        }
+        for (long ticketId : touched) {
+            touchTicket(ticketId);
+        }
+        logger.info("Wrote {} queued ticket responses for {} tickets", replies.size(), touched.size());
+    }
+
+    public void validateNewReply(long ticketId, long userId, String role, Map<String, Object> replyData) {
         validateRole(role);
         validateReplyData(replyData);
 
-        Ticket ticket = ticketRepository.findById(ticketId)
-                .orElseThrow(() -> new TicketNotFoundException("Ticket not found with ID: " + ticketId));
+        if (!ticketAccessService.findParticipants(ticketId).isPresent()) {
+            throw new TicketNotFoundException("Ticket not found with ID: " + ticketId);
+        }
 
-        User user = userRespository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User  not found with ID: " + userId));
+        if (!ticketAccessService.isParticipant(userId, ticketId) && !userRespository.existsById(userId)) {
+            throw new UserNotFoundException("User  not found with ID: " + userId);
+        }
 
-        validateAuthorization(ticket, user, role);
+        validateAuthorization(ticketId, userId, role);
+    }
 
+    // Proxies only: neither the ticket's reply collection nor the author is loaded for the insert
+    private TicketResponse insertReply(long ticketId, long userId, String role, String responseText) {
         TicketResponse ticketResponse = new TicketResponse();
-        ticketResponse.setTicket(ticket);
-        ticketResponse.setUser (user);
+        ticketResponse.setTicket(ticketRepository.getReferenceById(ticketId));
+        ticketResponse.setUser (userRespository.getReferenceById(userId));
         ticketResponse.setRole(TicketResponse.Role.valueOf(role.toUpperCase()));
-        ticketResponse.setResponseText(replyData.get("responseText").toString());
-
+        ticketResponse.setResponseText(responseText);
         TicketResponse savedResponse = ticketResponseRepository.save(ticketResponse);
-        ticket.getResponses().add(savedResponse);
-        ticketRepository.save(ticket);
-
-        logger.info("Ticket response created successfully for ticket ID: {}", ticketId);
+        ticketOutbox.record(TicketOutboxEvent.Type.REPLY_CREATED, ticketId, savedResponse.getResponseId(), userId);
+        ticketSearchIndex.indexReply(savedResponse.getResponseId(), ticketId, responseText, savedResponse.getCreatedAt());
+        readYourWritesTracker.recordWrite(userId);
+        return savedResponse;
+    }
 
-        return mapToDTO(savedResponse, ticket, user);
+    /**
+     * Bumps Ticket.updatedAt with a single-column UPDATE (Ticket is @DynamicUpdate), which keeps the cached ticket
+     * entry current. A JPQL bulk UPDATE would evict the whole tickets region.
+     */
+    private void touchTicket(long ticketId) {
+        Ticket ticket = ticketRepository.getReferenceById(ticketId);
+        ticket.setUpdatedAt(LocalDateTime.now());
+        ticketReadCoalescer.invalidate(ticketId);
     }
 
     private void validateReplyData(Map<String, Object> replyData) {
@@ -70,16 +140,10 @@ public class TicketResponseService {
         }
     }
 
-    private TicketResponseDTO mapToDTO(TicketResponse savedResponse, Ticket ticket, User user) {
-        return new TicketResponseDTO(
-                savedResponse.getResponseId(),
-                ticket.getTicketId(),
-                savedResponse.getResponseText(),
-                savedResponse.getRole().toString(),
-                user.getEmail(),
-                (ticket.getAgent() != null) ? ticket.getAgent().getEmail() : null,
-                savedResponse.getCreatedAt()
-        );
+    private TicketResponseDTO mapToDTO(TicketResponse savedResponse) {
+        return ticketResponseRepository.findDTOById(savedResponse.getResponseId())
+                .orElseThrow(() -> new TicketResponseNotFoundException("Reply not found with ID: "
+                        + savedResponse.getResponseId()));
     }
     private void validateRole(String role) {
         if (role == null || (!role.equalsIgnoreCase("AGENT") && !role.equalsIgnoreCase("CUSTOMER"))) {
@@ -87,52 +151,71 @@ public class TicketResponseService {
         }
     }
 
-    private void validateAuthorization(Ticket ticket, User user, String role) {
+    private void validateAuthorization(long ticketId, long userId, String role) {
         if (role.equalsIgnoreCase("AGENT")) {
-            if (ticket.getAgent() == null || !ticket.getAgent().equals(user)) {
+            if (!ticketAccessService.isAgent(userId, ticketId)) {
                 throw new UnauthorizedAccessException("User  is not authorized to perform this action on the ticket.");
             }
         } else if (role.equalsIgnoreCase("CUSTOMER")) {
-            if (!ticket.getCustomer().equals(user)) {
+            if (!ticketAccessService.isCustomer(userId, ticketId)) {
                 throw new UnauthorizedAccessException("User  is not authorized to perform this action on the ticket.");
             }
         }
     }
 
+    @Transactional
     public TicketResponse updateTicketResponse(long userId, long ticketId, long responseId, String updateText) {
-        User user = userRespository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        if (!userRespository.existsById(userId)) {
+            throw new IllegalArgumentException("User not found");
+        }
 
-        Ticket ticket = ticketRepository.findById(ticketId)
-                .orElseThrow(() -> new IllegalArgumentException("Ticket not found"));
+        if (!ticketAccessService.findParticipants(ticketId).isPresent()) {
+            throw new IllegalArgumentException("Ticket not found");
+        }
 
         TicketResponse ticketResponse = ticketResponseRepository.findById(responseId)
                 .orElseThrow(() -> new IllegalArgumentException("Reply not found"));
 
-        if (!ticketResponse.getUser().equals(user)) {
+        // getUserId() on the lazy author proxy does not load the user
+        if (ticketResponse.getUser().getUserId() != userId) {
             throw new IllegalArgumentException("User is not authorized to update this reply");
         }
 
         ticketResponse.setResponseText(updateText);
-        return ticketResponseRepository.save(ticketResponse);
+        TicketResponse savedResponse = ticketResponseRepository.save(ticketResponse);
+        ticketOutbox.record(TicketOutboxEvent.Type.REPLY_UPDATED, savedResponse.getTicket().getTicketId(), responseId, userId);
+        ticketSearchIndex.indexReply(responseId, savedResponse.getTicket().getTicketId(), updateText, savedResponse.getCreatedAt());
+        ticketReadCoalescer.invalidate(savedResponse.getTicket().getTicketId());
+        readYourWritesTracker.recordWrite(userId);
+        return savedResponse;
     }
 
+    @Transactional
     public void deleteTicketResponse(long userId, long ticketId, long responseId) {
-        User user = userRespository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        if (!userRespository.existsById(userId)) {
+            throw new IllegalArgumentException("User not found");
+        }
 
-        Ticket ticket = ticketRepository.findById(ticketId)
-                .orElseThrow(() -> new IllegalArgumentException("Ticket not found"));
+        if (!ticketAccessService.findParticipants(ticketId).isPresent()) {
+            throw new IllegalArgumentException("Ticket not found");
+        }
 
         TicketResponse ticketResponse = ticketResponseRepository.findById(responseId)
                 .orElseThrow(() -> new IllegalArgumentException("Reply not found"));
 
-        if (!ticketResponse.getUser().equals(user)) {
+        // getUserId() on the lazy author proxy does not load the user
+        if (ticketResponse.getUser().getUserId() != userId) {
             throw new IllegalArgumentException("User is not authorized to delete this reply");
         }
 
         ticketResponseRepository.delete(ticketResponse);
+        ticketOutbox.record(TicketOutboxEvent.Type.REPLY_DELETED, ticketResponse.getTicket().getTicketId(), responseId, userId);
+        ticketSearchIndex.removeReply(responseId);
+        // A deleted reply leaves no timestamp behind, so the thread's Last-Modified has to move with the ticket's
+        touchTicket(ticketResponse.getTicket().getTicketId());
+        readYourWritesTracker.recordWrite(userId);
     }
+    @Transactional
     public boolean updateTicketResponseStatus(long userId, long ticketId) {
         // Find the user by ID
         User user = userRespository.findById(userId)
@@ -148,16 +231,32 @@ public class TicketResponseService {
                 .orElseThrow(() -> new IllegalArgumentException("Ticket not found"));
 
         // Ensure the user is the assigned agent for this ticket
-        if (ticket.getAgent() == null || !ticket.getAgent().equals(user)) {
+        if (!ticketAccessService.isAgent(userId, ticketId)) {
             throw new IllegalArgumentException("User is not authorized to update the status of this ticket.");
         }
 
+        boolean wasActive = ticket.getStatus() == Ticket.Status.ACTIVE;
+
         // Update ticket status to RESOLVED
         ticket.setStatus(Ticket.Status.RESOLVED);
         ticket.setResolvedAt(java.time.LocalDateTime.now());
 
         // Save the updated ticket to the database
         ticketRepository.save(ticket);
+        ticketOutbox.record(TicketOutboxEvent.Type.TICKET_RESOLVED, ticketId, null, userId);
+        ticketReadCoalescer.invalidate(ticketId);
+
+        if (wasActive) {
+            // The pool is in memory; a rolled-back resolve must not free the agent's slot
+            long agentId = user.getUserId();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    agentAssignmentPool.release(agentId);
+                }
+            });
+        }
+        readYourWritesTracker.recordWrite(userId);
 
         return true;
     }
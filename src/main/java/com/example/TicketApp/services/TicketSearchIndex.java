@@ -0,0 +1,415 @@
+package com.example.TicketApp.services;
+
+import com.example.TicketApp.DTO.FullTextHitDTO;
+import com.example.TicketApp.customErrors.InvalidRequestException;
+import com.example.TicketApp.repository.TicketRepository;
+import com.example.TicketApp.repository.TicketResponseRepository;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Local Lucene index over ticket descriptions and reply texts.
+ * <p>
+ * Documents are written after the owning transaction commits, and searchers are refreshed on a short interval,
+ * so new content becomes searchable within {@code refresh-interval-ms}. Every document carries the ticket's
+ * customer and agent ids, and searches only match documents the caller takes part in.
+ * <p>
+ * {@link #rebuild()} builds a complete index in a separate directory while searches keep using the current one,
+ * then swaps it in with a single commit.
+ */
+@Service
+public class TicketSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(TicketSearchIndex.class);
+
+    private static final String TYPE_TICKET = "ticket";
+    private static final String TYPE_REPLY = "reply";
+    private static final int SNIPPET_LENGTH = 200;
+    private static final int REBUILD_CHUNK_SIZE = 1000;
+    private static final int MAX_RESULT_WINDOW = 1000;
+    private static final long COMMIT_INTERVAL_SECONDS = 30;
+
+    private final TicketRepository ticketRepository;
+    private final TicketResponseRepository ticketResponseRepository;
+    private final TicketAccessService ticketAccessService;
+    private final String indexDir;
+    private final long refreshIntervalMs;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    // Live writes hold writeLock, so a rebuild sees each one on both writers or on neither
+    private final Object writeLock = new Object();
+    // Refreshes and periodic commits share it; the rebuild swap takes it exclusively so no half-swapped index is published
+    private final ReadWriteLock publishLock = new ReentrantReadWriteLock();
+    private Directory directory;
+    private volatile IndexWriter writer;
+    private volatile SearcherManager searcherManager;
+    private ScheduledExecutorService refresher;
+    // Set while a rebuild runs, guarded by writeLock
+    private IndexWriter rebuildWriter;
+    private Set<String> writtenDuringRebuild;
+
+    @Autowired
+    public TicketSearchIndex(TicketRepository ticketRepository,
+                             TicketResponseRepository ticketResponseRepository,
+                             TicketAccessService ticketAccessService,
+                             @Value("${ticket.search.index-dir:data/ticket-index}") String indexDir,
+                             @Value("${ticket.search.refresh-interval-ms:500}") long refreshIntervalMs) {
+        this.ticketRepository = ticketRepository;
+        this.ticketResponseRepository = ticketResponseRepository;
+        this.ticketAccessService = ticketAccessService;
+        this.indexDir = indexDir;
+        this.refreshIntervalMs = refreshIntervalMs;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        directory = FSDirectory.open(Paths.get(indexDir));
+        openWriter();
+
+        refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "ticket-search-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresher.scheduleWithFixedDelay(this::refresh, refreshIntervalMs, refreshIntervalMs, TimeUnit.MILLISECONDS);
+        // Searchers see uncommitted changes; commits only bound what a crash can lose
+        refresher.scheduleWithFixedDelay(this::commit, COMMIT_INTERVAL_SECONDS, COMMIT_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        logger.info("Ticket search index opened at {} with {} documents", indexDir, writer.getDocStats().numDocs);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        refresher.shutdown();
+        searcherManager.close();
+        writer.commit();
+        writer.close();
+        directory.close();
+    }
+
+    private void openWriter() throws IOException {
+        IndexWriterConfig config = new IndexWriterConfig(analyzer);
+        config.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        writer = new IndexWriter(directory, config);
+        searcherManager = new SearcherManager(writer, null);
+    }
+
+    public void indexTicket(long ticketId, String description, Long customerId, Long agentId, LocalDateTime createdAt) {
+        afterCommit(() -> {
+            String key = TYPE_TICKET + ":" + ticketId;
+            Document doc = baseDocument(key, TYPE_TICKET, ticketId, customerId, agentId, description, createdAt);
+            write(key, target -> target.updateDocument(new Term("key", key), doc));
+        });
+    }
+
+    public void indexReply(long responseId, long ticketId, String responseText, LocalDateTime createdAt) {
+        afterCommit(() -> {
+            TicketAccessService.Participants participants = ticketAccessService.findParticipants(ticketId).orElse(null);
+            if (participants == null) {
+                return;
+            }
+            String key = TYPE_REPLY + ":" + responseId;
+            Document doc = baseDocument(key, TYPE_REPLY, ticketId, participants.getCustomerId(), participants.getAgentId(),
+                    responseText, createdAt);
+            doc.add(new StoredField("responseId", responseId));
+            write(key, target -> target.updateDocument(new Term("key", key), doc));
+        });
+    }
+
+    public void removeReply(long responseId) {
+        afterCommit(() -> {
+            String key = TYPE_REPLY + ":" + responseId;
+            write(key, target -> target.deleteDocuments(new Term("key", key)));
+        });
+    }
+
+    public Page<FullTextHitDTO> search(long userId, String text, int page, int size) {
+        if (text == null || text.trim().isEmpty()) {
+            throw new InvalidRequestException("Search text must not be empty");
+        }
+        if (page < 0 || size <= 0 || (page + 1) * size > MAX_RESULT_WINDOW) {
+            throw new InvalidRequestException("Page window must stay within the first " + MAX_RESULT_WINDOW + " results");
+        }
+
+        Query textQuery = new SimpleQueryParser(analyzer, "text").parse(text);
+        Query participantFilter = new BooleanQuery.Builder()
+                .add(new TermQuery(new Term("customerId", String.valueOf(userId))), BooleanClause.Occur.SHOULD)
+                .add(new TermQuery(new Term("agentId", String.valueOf(userId))), BooleanClause.Occur.SHOULD)
+                .setMinimumNumberShouldMatch(1)
+                .build();
+        Query query = new BooleanQuery.Builder()
+                .add(textQuery, BooleanClause.Occur.MUST)
+                .add(participantFilter, BooleanClause.Occur.FILTER)
+                .build();
+
+        IndexSearcher searcher = null;
+        try {
+            searcher = searcherManager.acquire();
+            TopDocs topDocs = searcher.search(query, (page + 1) * size);
+            List<FullTextHitDTO> hits = new ArrayList<>(size);
+            for (int i = page * size; i < topDocs.scoreDocs.length; i++) {
+                ScoreDoc scoreDoc = topDocs.scoreDocs[i];
+                hits.add(toHit(searcher.doc(scoreDoc.doc), scoreDoc.score));
+            }
+            return new PageImpl<>(hits, PageRequest.of(page, size), topDocs.totalHits.value);
+        } catch (IOException e) {
+            throw new IllegalStateException("Full-text search failed", e);
+        } finally {
+            if (searcher != null) {
+                try {
+                    searcherManager.release(searcher);
+                } catch (IOException e) {
+                    logger.warn("Could not release searcher: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Re-reads every ticket and reply from the database in id order into a fresh index next to the live one, then
+     * replaces the live index's contents with it in one commit. Searches, refreshes and periodic commits keep using
+     * the old index until then, so a crash mid-rebuild leaves it intact.
+     * <p>
+     * Live writes made meanwhile go to both indexes, and the rebuild skips any key a live write has touched: the
+     * live write is at least as new as the row the rebuild read, and a reply deleted after its chunk was read does
+     * not come back.
+     */
+    public synchronized void rebuild() throws IOException {
+        logger.info("Rebuilding ticket search index");
+        Path rebuildPath = Paths.get(indexDir + "-rebuild");
+        IOUtils.rm(rebuildPath);
+        try (Directory rebuildDirectory = FSDirectory.open(rebuildPath)) {
+            IndexWriterConfig config = new IndexWriterConfig(analyzer);
+            config.setOpenMode(IndexWriterConfig.OpenMode.CREATE);
+            IndexWriter target = new IndexWriter(rebuildDirectory, config);
+            synchronized (writeLock) {
+                rebuildWriter = target;
+                writtenDuringRebuild = new HashSet<>();
+            }
+            try {
+                long tickets = 0;
+                long afterId = 0;
+                List<Object[]> rows;
+                do {
+                    rows = ticketRepository.findIndexRowsAfter(afterId, PageRequest.of(0, REBUILD_CHUNK_SIZE));
+                    for (Object[] row : rows) {
+                        afterId = (Long) row[0];
+                        String key = TYPE_TICKET + ":" + afterId;
+                        addRebuilt(target, key, baseDocument(key, TYPE_TICKET, afterId, (Long) row[2],
+                                (Long) row[3], (String) row[1], (LocalDateTime) row[4]));
+                        tickets++;
+                    }
+                } while (rows.size() == REBUILD_CHUNK_SIZE);
+
+                long replies = 0;
+                afterId = 0;
+                do {
+                    rows = ticketResponseRepository.findIndexRowsAfter(afterId, PageRequest.of(0, REBUILD_CHUNK_SIZE));
+                    for (Object[] row : rows) {
+                        afterId = (Long) row[0];
+                        String key = TYPE_REPLY + ":" + afterId;
+                        Document doc = baseDocument(key, TYPE_REPLY, (Long) row[1], (Long) row[3],
+                                (Long) row[4], (String) row[2], (LocalDateTime) row[5]);
+                        doc.add(new StoredField("responseId", afterId));
+                        addRebuilt(target, key, doc);
+                        replies++;
+                    }
+                } while (rows.size() == REBUILD_CHUNK_SIZE);
+
+                // Live writes wait for the swap, so none can land between the two indexes
+                synchronized (writeLock) {
+                    rebuildWriter = null;
+                    writtenDuringRebuild = null;
+                    target.close();
+                    swapIn(rebuildDirectory);
+                }
+                logger.info("Ticket search index rebuilt with {} tickets and {} replies", tickets, replies);
+            } finally {
+                synchronized (writeLock) {
+                    rebuildWriter = null;
+                    writtenDuringRebuild = null;
+                }
+                if (target.isOpen()) {
+                    target.rollback();
+                }
+            }
+        } finally {
+            IOUtils.rm(rebuildPath);
+        }
+    }
+
+    private void addRebuilt(IndexWriter target, String key, Document doc) throws IOException {
+        synchronized (writeLock) {
+            if (!writtenDuringRebuild.contains(key)) {
+                target.updateDocument(new Term("key", key), doc);
+            }
+        }
+    }
+
+    // Caller holds writeLock
+    private void swapIn(Directory rebuilt) throws IOException {
+        publishLock.writeLock().lock();
+        try {
+            // A failed swap rolls back to this commit, which already has every live write
+            writer.commit();
+            try {
+                writer.deleteAll();
+                writer.addIndexes(rebuilt);
+                writer.commit();
+            } catch (IOException | RuntimeException e) {
+                writer.rollback();
+                searcherManager.close();
+                openWriter();
+                throw e;
+            }
+            searcherManager.maybeRefresh();
+        } finally {
+            publishLock.writeLock().unlock();
+        }
+    }
+
+    private Document baseDocument(String key, String type, long ticketId, Long customerId, Long agentId, String text,
+                                  LocalDateTime createdAt) {
+        Document doc = new Document();
+        doc.add(new StringField("key", key, Field.Store.NO));
+        doc.add(new StringField("type", type, Field.Store.YES));
+        doc.add(new StoredField("ticketId", ticketId));
+        if (customerId != null) {
+            doc.add(new StringField("customerId", String.valueOf(customerId), Field.Store.NO));
+        }
+        if (agentId != null) {
+            doc.add(new StringField("agentId", String.valueOf(agentId), Field.Store.NO));
+        }
+        doc.add(new TextField("text", text != null ? text : "", Field.Store.YES));
+        if (createdAt != null) {
+            doc.add(new StoredField("createdAt", createdAt.toEpochSecond(ZoneOffset.UTC)));
+        }
+        return doc;
+    }
+
+    private FullTextHitDTO toHit(Document doc, float score) {
+        String text = doc.get("text");
+        if (text != null && text.length() > SNIPPET_LENGTH) {
+            text = text.substring(0, SNIPPET_LENGTH);
+        }
+        Number responseId = doc.getField("responseId") != null ? doc.getField("responseId").numericValue() : null;
+        Number createdAt = doc.getField("createdAt") != null ? doc.getField("createdAt").numericValue() : null;
+        return new FullTextHitDTO(
+                doc.get("type"),
+                doc.getField("ticketId").numericValue().longValue(),
+                responseId != null ? responseId.longValue() : null,
+                score,
+                text,
+                createdAt != null ? LocalDateTime.ofEpochSecond(createdAt.longValue(), 0, ZoneOffset.UTC) : null
+        );
+    }
+
+    private void refresh() {
+        publishLock.readLock().lock();
+        try {
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            logger.error("Search index refresh failed: {}", e.getMessage(), e);
+        } finally {
+            publishLock.readLock().unlock();
+        }
+    }
+
+    private void commit() {
+        publishLock.readLock().lock();
+        try {
+            writer.commit();
+        } catch (IOException e) {
+            logger.error("Search index commit failed: {}", e.getMessage(), e);
+        } finally {
+            publishLock.readLock().unlock();
+        }
+    }
+
+    private void write(String key, DocumentWrite write) throws IOException {
+        synchronized (writeLock) {
+            write.apply(writer);
+            if (rebuildWriter != null) {
+                write.apply(rebuildWriter);
+                writtenDuringRebuild.add(key);
+            }
+        }
+    }
+
+    // Index writes must never fail or roll back the business operation, so errors are only logged
+    private void afterCommit(IndexWrite write) {
+        Runnable task = () -> {
+            try {
+                write.run();
+            } catch (Exception e) {
+                logger.error("Search index update failed: {}", e.getMessage(), e);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+
+    @FunctionalInterface
+    private interface IndexWrite {
+        void run() throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface DocumentWrite {
+        void apply(IndexWriter target) throws IOException;
+    }
+}
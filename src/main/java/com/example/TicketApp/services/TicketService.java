@@ -1,85 +1,143 @@
 package com.example.TicketApp.services;
 
+import com.example.TicketApp.DTO.BulkTicketRequestDTO;
+import com.example.TicketApp.DTO.BulkTicketResultDTO;
 import com.example.TicketApp.DTO.SimpleTicketDTO;
 import com.example.TicketApp.DTO.TicketDTO;
 import com.example.TicketApp.DTO.TicketResponseDTO;
+import com.example.TicketApp.DTO.TicketVersion;
 import com.example.TicketApp.entity.Ticket;
+import com.example.TicketApp.entity.TicketOutboxEvent;
 import com.example.TicketApp.entity.TicketResponse;
 import com.example.TicketApp.entity.User;
 import com.example.TicketApp.repository.TicketRepository;
 import com.example.TicketApp.repository.TicketResponseRepository;
 import com.example.TicketApp.repository.UserRespository;
+import com.example.TicketApp.config.AsyncConfig;
+import com.example.TicketApp.config.ReadYourWritesTracker;
 import com.example.TicketApp.constants.ControllerConstants;
 import com.example.TicketApp.customErrors.InvalidRequestException;
 import com.example.TicketApp.customErrors.UserNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Service
 public class TicketService {
 
     private static final Logger logger = LoggerFactory.getLogger(TicketService.class);
-    private static long count = 0;
+    public static final int MAX_BULK_TICKETS = 10000;
+    private static final int BULK_CHUNK_SIZE = 500;
+    private static final String SEARCH_TICKET = "searchTicket";
+    private static final String TICKET_THREAD = "ticketThread";
 
     private final UserRespository userRespository;
     private final TicketRepository ticketRepository;
     private final TicketResponseRepository ticketResponseRepository;
+    private final AgentAssignmentPool agentAssignmentPool;
+    private final TicketAccessService ticketAccessService;
+    private final TicketSearchIndex ticketSearchIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final AsyncTaskExecutor dbTaskExecutor;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final TicketReadCoalescer ticketReadCoalescer;
+    private final TicketOutbox ticketOutbox;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Autowired
-    public TicketService(UserRespository userRespository, TicketRepository ticketRepository, TicketResponseRepository ticketResponseRepository) {
+    public TicketService(UserRespository userRespository, TicketRepository ticketRepository, TicketResponseRepository ticketResponseRepository,
+                         AgentAssignmentPool agentAssignmentPool, TicketAccessService ticketAccessService,
+                         TicketSearchIndex ticketSearchIndex, PlatformTransactionManager transactionManager,
+                         @Qualifier(AsyncConfig.DB_TASK_EXECUTOR) AsyncTaskExecutor dbTaskExecutor,
+                         ReadYourWritesTracker readYourWritesTracker, TicketReadCoalescer ticketReadCoalescer,
+                         TicketOutbox ticketOutbox) {
         this.userRespository = userRespository;
         this.ticketRepository = ticketRepository;
         this.ticketResponseRepository = ticketResponseRepository;
+        this.agentAssignmentPool = agentAssignmentPool;
+        this.ticketAccessService = ticketAccessService;
+        this.ticketSearchIndex = ticketSearchIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.dbTaskExecutor = dbTaskExecutor;
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.ticketReadCoalescer = ticketReadCoalescer;
+        this.ticketOutbox = ticketOutbox;
     }
 
     public Page<SimpleTicketDTO> getFilteredTickets(long userId, String role, String status, String category, int page, int size) {
-        User user = userRespository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User  not found with ID: " + userId));
+        if (!userRespository.existsById(userId)) {
+            throw new UserNotFoundException("User  not found with ID: " + userId);
+        }
 
-        List<Ticket> tickets;
+        List<Ticket.Status> statuses = parseStatuses(status);
+        List<Ticket.Category> categories = parseCategories(category);
+        Pageable pageable = PageRequest.of(page, size);
 
         if ("AGENT".equalsIgnoreCase(role)) {
-            tickets = user.getTicketsAsAgent();
+            return ticketRepository.findAgentTickets(userId, statuses, categories, pageable);
         } else if ("CUSTOMER".equalsIgnoreCase(role)) {
-            tickets = user.getTicketsAsCustomer();
+            return ticketRepository.findCustomerTickets(userId, statuses, categories, pageable);
         } else {
             throw new IllegalArgumentException("Invalid role. Must be 'AGENT' or 'CUSTOMER'.");
         }
+    }
 
-        List<SimpleTicketDTO> filteredTickets = tickets.stream()
-                .filter(ticket -> filterTickets(ticket, status, category))
-                .map(ticket -> new SimpleTicketDTO(
-                        ticket.getTicketId(),
-                        ticket.getDescription(),
-                        ticket.getStatus().name(),
-                        ticket.getCategory().name(),
-                        ticket.getCreatedAt(),
-                        ticket.getUpdatedAt(),
-                        ticket.getAgent() != null ? ticket.getAgent().getEmail() : null,
-                        ticket.getCustomer() != null ? ticket.getCustomer().getEmail() : null
-                ))
-                .collect(Collectors.toList());
+    public List<SimpleTicketDTO> getFilteredTicketsAfter(long userId, String role, String status, String category, String cursor, int size) {
+        if (!userRespository.existsById(userId)) {
+            throw new UserNotFoundException("User  not found with ID: " + userId);
+        }
 
-        int start = page * size;
-        int end = Math.min(start + size, filteredTickets.size());
+        List<Ticket.Status> statuses = parseStatuses(status);
+        List<Ticket.Category> categories = parseCategories(category);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Pageable limit = PageRequest.of(0, size);
 
-        if (start >= filteredTickets.size()) {
-            return new PageImpl<>(Collections.emptyList(), PageRequest.of(page, size), filteredTickets.size());
+        if ("AGENT".equalsIgnoreCase(role)) {
+            return ticketRepository.findAgentTicketsAfter(userId, statuses, categories, after.getCreatedAt(), after.getId(), limit);
+        } else if ("CUSTOMER".equalsIgnoreCase(role)) {
+            return ticketRepository.findCustomerTicketsAfter(userId, statuses, categories, after.getCreatedAt(), after.getId(), limit);
+        } else {
+            throw new IllegalArgumentException("Invalid role. Must be 'AGENT' or 'CUSTOMER'.");
         }
+    }
 
-        List<SimpleTicketDTO> paginatedList = filteredTickets.subList(start, end);
-        return new PageImpl<>(paginatedList, PageRequest.of(page, size), filteredTickets.size());
+    static List<Ticket.Status> parseStatuses(String status) {
+        if ("ALL".equalsIgnoreCase(status)) {
+            return Arrays.asList(Ticket.Status.values());
+        }
+        for (Ticket.Status value : Ticket.Status.values()) {
+            if (value.name().equalsIgnoreCase(status)) {
+                return Collections.singletonList(value);
+            }
+        }
+        throw new InvalidRequestException("Invalid status. Must be 'ALL', 'ACTIVE' or 'RESOLVED'.");
     }
 
-    private boolean filterTickets(Ticket ticket, String status, String category) {
-        return ("ALL".equalsIgnoreCase(status) || status.equalsIgnoreCase(ticket.getStatus().name())) &&
-                ("ALL".equalsIgnoreCase(category) || category.equalsIgnoreCase(ticket.getCategory().name()));
+    static List<Ticket.Category> parseCategories(String category) {
+        if ("ALL".equalsIgnoreCase(category)) {
+            return Arrays.asList(Ticket.Category.values());
+        }
+        for (Ticket.Category value : Ticket.Category.values()) {
+            if (value.name().equalsIgnoreCase(category)) {
+                return Collections.singletonList(value);
+            }
+        }
+        throw new InvalidRequestException("Invalid category. Must be 'ALL', 'PREBOOKING' or 'POSTBOOKING'.");
     }
 
     public Map<String, Long> getCountActiveResolved(long userId, String role, String category) {
@@ -87,23 +145,20 @@ public class TicketService {
             throw new IllegalArgumentException("Invalid role. Role must be 'AGENT' or 'CUSTOMER'.");
         }
 
-        List<Ticket> tickets = ticketRepository.findAll().stream()
-                .filter(ticket -> {
-                    if (role.equalsIgnoreCase("AGENT")) {
-                        return ticket.getAgent() != null && ticket.getAgent().getUserId() == userId;
-                    } else {
-                        return ticket.getCustomer() != null && ticket.getCustomer().getUserId() == userId;
-                    }
-                })
-                .collect(Collectors.toList());
-
-        long activeCount = tickets.stream()
-                .filter(ticket -> filterTicketsCategory(ticket, "ACTIVE", category))
-                .count();
-
-        long resolvedCount = tickets.stream()
-                .filter(ticket -> filterTicketsCategory(ticket, "RESOLVED", category))
-                .count();
+        List<Ticket.Category> categories = parseCategories(category);
+        List<Object[]> rows = role.equalsIgnoreCase("AGENT")
+                ? ticketRepository.countAgentTicketsByStatus(userId, categories)
+                : ticketRepository.countCustomerTicketsByStatus(userId, categories);
+
+        long activeCount = 0;
+        long resolvedCount = 0;
+        for (Object[] row : rows) {
+            if (row[0] == Ticket.Status.ACTIVE) {
+                activeCount = (Long) row[1];
+            } else if (row[0] == Ticket.Status.RESOLVED) {
+                resolvedCount = (Long) row[1];
+            }
+        }
 
         Map<String, Long> count = new HashMap<>();
         count.put("Active_tickets", activeCount);
@@ -112,82 +167,76 @@ public class TicketService {
         return count;
     }
 
-    private boolean filterTicketsCategory(Ticket ticket, String status, String category) {
-        return ("ALL".equalsIgnoreCase(status) || status.equalsIgnoreCase(ticket.getStatus().name())) &&
-                ("ALL".equalsIgnoreCase(category) || category.equalsIgnoreCase(ticket.getCategory().name()));
+    /**
+     * A ticket with one page of its replies, by page number or after a keyset {@code cursor}. The participant check,
+     * the ticket row and the reply page are read in parallel on the DB executor. Concurrent identical calls share
+     * the ticket and reply reads. Must not be joined from a DB executor thread.
+     */
+    public CompletableFuture<TicketDTO> searchTicketAsync(long userId, long ticketId, int page, int size, String cursor) {
+        KeysetCursor after = cursor != null && !cursor.isEmpty() ? KeysetCursor.decode(cursor) : null;
+
+        // The reply page is read before access is confirmed; a denied request only wastes that read
+        CompletableFuture<Optional<TicketAccessService.Participants>> participants =
+                CompletableFuture.supplyAsync(() -> ticketAccessService.findParticipants(ticketId), dbTaskExecutor);
+        CompletableFuture<Optional<TicketDTO>> view = ticketReadCoalescer.coalesce(SEARCH_TICKET, ticketId,
+                page + ":" + size + ":" + cursor, () -> {
+                    CompletableFuture<Optional<Ticket>> ticket =
+                            CompletableFuture.supplyAsync(() -> ticketRepository.findById(ticketId), dbTaskExecutor);
+                    CompletableFuture<List<TicketResponseDTO>> replies =
+                            CompletableFuture.supplyAsync(() -> findReplyPage(ticketId, page, size, after), dbTaskExecutor);
+                    return ticket.thenCombine(replies, (row, replyPage) -> row.map(found -> TicketDTO.of(found, replyPage)));
+                });
+
+        return participants.thenCombine(view, (found, ticketDTO) -> {
+            checkAccess(userId, ticketId, found.orElse(null));
+            return ticketDTO.orElseThrow(() -> new IllegalArgumentException("Ticket not found with ID: " + ticketId));
+        });
     }
 
-    public TicketDTO searchTicket(long userId, long ticketId, int page, int size) {
-        User user = userRespository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User  not found with ID: " + userId));
-
-        Ticket ticket = ticketRepository.findById(ticketId)
-                .orElseThrow(() -> new IllegalArgumentException("Ticket not found with ID: " + ticketId));
-
-        if (!ticket.getCustomer().equals(user) && (ticket.getAgent() == null || !ticket.getAgent().equals(user))) {
-            throw new InvalidRequestException("User  ID " + userId + " is not authorized to view ticket ID " + ticketId);
+    private void checkAccess(long userId, long ticketId, TicketAccessService.Participants participants) {
+        if (participants != null && (participants.isCustomer(userId) || participants.isAgent(userId))) {
+            return;
         }
-
-        List<TicketResponse> responses = Optional.ofNullable(ticket.getResponses())
-                .orElse(Collections.emptyList());
-
-        if (page < 0 || size <= 0 || page * size >= responses.size()) {
-            return new TicketDTO(ticket.getTicketId(), ticket.getDescription(), ticket.getStatus().name(),
-                    ticket.getCategory().name(), ticket.getCreatedAt(), ticket.getUpdatedAt(), Collections.emptyList());
+        // A participant always exists, so only look the user up to pick the right error
+        if (!userRespository.existsById(userId)) {
+            throw new UserNotFoundException("User  not found with ID: " + userId);
+        }
+        if (participants == null) {
+            throw new IllegalArgumentException("Ticket not found with ID: " + ticketId);
         }
+        throw new InvalidRequestException("User  ID " + userId + " is not authorized to view ticket ID " + ticketId);
+    }
 
-        int start = page * size;
-        int end = Math.min(start + size, responses.size());
-        List<TicketResponse> paginatedResponses = responses.subList(start, end);
+    private List<TicketResponseDTO> findReplyPage(long ticketId, int page, int size, KeysetCursor after) {
+        if (size <= 0) {
+            return Collections.emptyList();
+        } else if (after != null) {
+            return ticketResponseRepository.findThreadPageAfter(ticketId, after.getCreatedAt(), after.getId(),
+                    PageRequest.of(0, size));
+        } else if (page < 0) {
+            return Collections.emptyList();
+        }
+        return ticketResponseRepository.findThreadPage(ticketId, PageRequest.of(page, size));
+    }
 
-        List<TicketResponseDTO> responseDTOs = new ArrayList<>();
-        for (TicketResponse response : paginatedResponses) {
-            responseDTOs.add(new TicketResponseDTO(
-                    response.getResponseId(),
-                    ticket.getTicketId(),
-                    response.getResponseText(),
-                    response.getRole() != null ? response.getRole().toString() : "UNKNOWN",
-                    response.getUser () != null ? response.getUser ().getEmail() : "No Email",
-                    ticket.getAgent() != null ? ticket.getAgent().getEmail() : ticket.getCustomer().getEmail(),
-                    response.getCreatedAt()
-            ));
+    /**
+     * Validators for a participant's view of the ticket. Empty when the ticket does not exist or the user is not a
+     * participant, so the caller falls through to the usual error response.
+     */
+    public Optional<TicketVersion> findTicketVersion(long userId, long ticketId) {
+        if (!ticketAccessService.isParticipant(userId, ticketId)) {
+            return Optional.empty();
         }
+        return ticketRepository.findVersion(ticketId);
+    }
 
-        return new TicketDTO(
-                ticket.getTicketId(),
-                ticket.getDescription(),
-                ticket.getStatus().name(),
-                ticket.getCategory().name(),
-                ticket.getCreatedAt(),
-                ticket.getUpdatedAt(),
-                responseDTOs
-        );
+    public Optional<TicketVersion> findThreadVersion(long ticketId) {
+        return ticketRepository.findVersion(ticketId);
     }
 
     public List<TicketResponseDTO> getAllTicketResponses(long userId, long ticketId) {
-        Ticket ticket = ticketRepository.findById(ticketId)
-                .orElseThrow(() -> new IllegalArgumentException("Ticket not found with ID: " + ticketId));
-
-        List<TicketResponse> ticketResponses = ticket.getResponses();
-
-        List<TicketResponseDTO> repliesDTO = new ArrayList<>();
-        for (TicketResponse ticketResponse : ticketResponses) {
-            User user = ticketResponse.getUser ();
-
-            TicketResponseDTO responseDTO = new TicketResponseDTO(
-                    ticketResponse.getResponseId(),
-                    ticket.getTicketId(),
-                    ticketResponse.getResponseText(),
-                    ticketResponse.getRole().toString(),
-                    user != null ? user.getEmail() : "No Email",
-                    ticket.getAgent() != null ? ticket.getAgent().getEmail() : null,
-                    ticketResponse.getCreatedAt()
-            );
-
-            repliesDTO.add(responseDTO);
-        }
-
-        return repliesDTO;
+        // An unknown ticket simply has no replies; the controller turns an empty thread into 404
+        return ticketReadCoalescer.call(TICKET_THREAD, ticketId, "", () -> ticketResponseRepository.findThreadDTOs(ticketId));
     }
 
     public Ticket createTicket(long userId, String category, String description) {
@@ -211,10 +260,24 @@ public class TicketService {
             ticket.setStatus(Ticket.Status.ACTIVE);
             ticket.setDescription(description);
 
-            User agent = assignAgentToTicket();
-            ticket.setAgent(agent);
-
-            ticket = ticketRepository.save(ticket);
+            long agentId = assignAgentToTicket();
+            ticket.setAgent(userRespository.getReferenceById(agentId));
+
+            Ticket unsaved = ticket;
+            try {
+                // The ticket and its change event commit together
+                ticket = transactionTemplate.execute(status -> {
+                    Ticket saved = ticketRepository.save(unsaved);
+                    ticketOutbox.record(TicketOutboxEvent.Type.TICKET_CREATED, saved.getTicketId(), null, userId);
+                    return saved;
+                });
+            } catch (RuntimeException e) {
+                agentAssignmentPool.release(agentId);
+                throw e;
+            }
+            ticketAccessService.register(ticket.getTicketId(), userId, agentId);
+            readYourWritesTracker.recordWrite(userId);
+            ticketSearchIndex.indexTicket(ticket.getTicketId(), ticket.getDescription(), userId, agentId, ticket.getCreatedAt());
             logger.info("Ticket created with ID: " + ticket.getTicketId());
 
             return ticket;
@@ -227,16 +290,131 @@ public class TicketService {
         }
     }
 
-    private User assignAgentToTicket() {
-        List<User> agents = userRespository.findByRole(User.Role.AGENT);
+    public List<BulkTicketResultDTO> createTickets(List<BulkTicketRequestDTO> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new InvalidRequestException("At least one ticket is required");
+        }
+        if (requests.size() > MAX_BULK_TICKETS) {
+            throw new InvalidRequestException("At most " + MAX_BULK_TICKETS + " tickets can be created per request");
+        }
 
-        if (agents.isEmpty()) {
-            logger.error("No available agents for ticket assignment");
-            throw new IllegalStateException("No available agents for ticket assignment");
+        // One query validates every distinct customer in the request
+        Set<Long> userIds = new HashSet<>();
+        for (BulkTicketRequestDTO request : requests) {
+            if (request != null && request.getUserId() != null) {
+                userIds.add(request.getUserId());
+            }
+        }
+        Map<Long, User.Role> roles = new HashMap<>();
+        for (User user : userRespository.findAllById(userIds)) {
+            roles.put(user.getUserId(), user.getRole());
         }
 
-        User assignedAgent = agents.get((int) (count++ % agents.size()));
-        logger.info("Assigned agent: " + assignedAgent.getEmail());
-        return assignedAgent;
+        BulkTicketResultDTO[] results = new BulkTicketResultDTO[requests.size()];
+        List<Integer> chunk = new ArrayList<>(BULK_CHUNK_SIZE);
+        for (int i = 0; i < requests.size(); i++) {
+            String error = validateBulkItem(requests.get(i), roles);
+            if (error != null) {
+                results[i] = new BulkTicketResultDTO(i, null, ControllerConstants.STATUS_ERROR, error);
+                continue;
+            }
+            chunk.add(i);
+            if (chunk.size() == BULK_CHUNK_SIZE) {
+                insertChunk(requests, chunk, results);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            insertChunk(requests, chunk, results);
+        }
+
+        logger.info("Bulk ticket creation finished for {} items", requests.size());
+        return Arrays.asList(results);
+    }
+
+    private String validateBulkItem(BulkTicketRequestDTO request, Map<Long, User.Role> roles) {
+        if (request == null || request.getUserId() == null) {
+            return "userId is required";
+        }
+        User.Role role = roles.get(request.getUserId());
+        if (role == null) {
+            return "User  not found";
+        }
+        if (role != User.Role.CUSTOMER) {
+            return "Only customers can create tickets";
+        }
+        String category = request.getCategory();
+        if (category == null || (!category.equalsIgnoreCase("prebooking") && !category.equalsIgnoreCase("postbooking"))) {
+            return "Invalid category. Must be 'prebooking' or 'postbooking'";
+        }
+        return null;
+    }
+
+    // Inserts one chunk in its own transaction; Hibernate sends it as JDBC batches of hibernate.jdbc.batch_size
+    private void insertChunk(List<BulkTicketRequestDTO> requests, List<Integer> chunk, BulkTicketResultDTO[] results) {
+        List<Ticket> tickets = new ArrayList<>(chunk.size());
+        List<Long> agentIds = new ArrayList<>(chunk.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int index : chunk) {
+                    BulkTicketRequestDTO request = requests.get(index);
+                    Ticket ticket = new Ticket();
+                    ticket.setCustomer(userRespository.getReferenceById(request.getUserId()));
+                    ticket.setCategory(Ticket.Category.valueOf(request.getCategory().toUpperCase()));
+                    ticket.setStatus(Ticket.Status.ACTIVE);
+                    ticket.setDescription(request.getDescription() == null || request.getDescription().isEmpty()
+                            ? "No description provided by the user." : request.getDescription());
+
+                    long agentId = agentAssignmentPool.assign();
+                    agentIds.add(agentId);
+                    ticket.setAgent(userRespository.getReferenceById(agentId));
+
+                    entityManager.persist(ticket);
+                    ticketOutbox.record(TicketOutboxEvent.Type.TICKET_CREATED, ticket.getTicketId(), null, request.getUserId());
+                    tickets.add(ticket);
+                }
+                entityManager.flush();
+                // Keep the persistence context from growing across chunks
+                entityManager.clear();
+            });
+        } catch (RuntimeException e) {
+            logger.error("Bulk ticket chunk failed: {}", e.getMessage(), e);
+            for (long agentId : agentIds) {
+                agentAssignmentPool.release(agentId);
+            }
+            String message = e instanceof IllegalStateException ? e.getMessage() : ControllerConstants.MESSAGE_INTERNAL_SERVER_ERROR;
+            for (int index : chunk) {
+                results[index] = new BulkTicketResultDTO(index, null, ControllerConstants.STATUS_ERROR, message);
+            }
+            return;
+        }
+
+        // Committed: a failure from here on must not report the tickets as failed or free their agents
+        for (int i = 0; i < chunk.size(); i++) {
+            Ticket ticket = tickets.get(i);
+            Long customerId = requests.get(chunk.get(i)).getUserId();
+            results[chunk.get(i)] = new BulkTicketResultDTO(chunk.get(i), ticket.getTicketId(),
+                    ControllerConstants.STATUS_SUCCESS, ControllerConstants.MESSAGE_TICKET_CREATED);
+            try {
+                ticketAccessService.register(ticket.getTicketId(), customerId, agentIds.get(i));
+                readYourWritesTracker.recordWrite(customerId);
+                ticketSearchIndex.indexTicket(ticket.getTicketId(), ticket.getDescription(), customerId, agentIds.get(i),
+                        ticket.getCreatedAt());
+            } catch (RuntimeException e) {
+                logger.error("Ticket {} was created but updating caches and the search index failed: {}",
+                        ticket.getTicketId(), e.getMessage(), e);
+            }
+        }
+    }
+
+    private long assignAgentToTicket() {
+        try {
+            long agentId = agentAssignmentPool.assign();
+            logger.info("Assigned agent: " + agentAssignmentPool.getEmail(agentId));
+            return agentId;
+        } catch (IllegalStateException e) {
+            logger.error("No available agents for ticket assignment");
+            throw e;
+        }
     }
 }
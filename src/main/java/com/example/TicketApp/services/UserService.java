@@ -17,10 +17,12 @@ public class UserService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
     private final UserRespository userRepository;
+    private final AgentAssignmentPool agentAssignmentPool;
 
     @Autowired
-    public UserService(UserRespository userRepository) {
+    public UserService(UserRespository userRepository, AgentAssignmentPool agentAssignmentPool) {
         this.userRepository = userRepository;
+        this.agentAssignmentPool = agentAssignmentPool;
     }
 
     public User signup(UserSignRequestDTO userSignRequestDTO) {
@@ -37,6 +39,7 @@ public class UserService {
         user.setRole(User.Role.valueOf(userSignRequestDTO.getRole().toUpperCase()));  // Convert role to Enum
 
         User createdUser  = userRepository.save(user);
+        agentAssignmentPool.registerAgent(createdUser);
         logger.info("User  registered successfully: {}", createdUser .getEmail());
         return createdUser ;
     }
@@ -0,0 +1,46 @@
+-- Schema as previously generated by Hibernate ddl-auto=update.
+-- Existing databases are baselined at this version and skip this script.
+
+CREATE TABLE IF NOT EXISTS users (
+    user_id    BIGSERIAL    PRIMARY KEY,
+    email      VARCHAR(255) NOT NULL,
+    password   VARCHAR(255) NOT NULL,
+    role       VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP    NOT NULL,
+    updated_at TIMESTAMP    NOT NULL,
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE IF NOT EXISTS agent_customer_mapping (
+    customer_id BIGINT NOT NULL REFERENCES users (user_id),
+    agent_id    BIGINT NOT NULL REFERENCES users (user_id),
+    PRIMARY KEY (customer_id, agent_id)
+);
+
+CREATE TABLE IF NOT EXISTS booking (
+    booking_id BIGSERIAL PRIMARY KEY,
+    user_id    BIGINT    NOT NULL REFERENCES users (user_id)
+);
+
+CREATE TABLE IF NOT EXISTS tickets (
+    ticket_id   BIGSERIAL    PRIMARY KEY,
+    customer_id BIGINT       NOT NULL REFERENCES users (user_id),
+    agent_id    BIGINT       REFERENCES users (user_id),
+    category    VARCHAR(255) NOT NULL,
+    booking_id  BIGINT       REFERENCES booking (booking_id),
+    description VARCHAR(255) NOT NULL,
+    status      VARCHAR(255) NOT NULL,
+    created_at  TIMESTAMP,
+    updated_at  TIMESTAMP,
+    resolved_at TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS ticket_responses (
+    response_id   BIGSERIAL    PRIMARY KEY,
+    ticket_id     BIGINT       NOT NULL REFERENCES tickets (ticket_id),
+    user_id       BIGINT       NOT NULL REFERENCES users (user_id),
+    role          VARCHAR(255) NOT NULL,
+    response_text VARCHAR(255) NOT NULL,
+    created_at    TIMESTAMP,
+    updated_at    TIMESTAMP
+);
@@ -0,0 +1,10 @@
+-- Pooled sequences for Ticket and TicketResponse ids (allocationSize = 50 in the entities).
+-- Hibernate hands out the 50 ids ending at each value, so the first value must be max(id) + 50.
+
+CREATE SEQUENCE IF NOT EXISTS ticket_id_seq INCREMENT BY 50;
+ALTER SEQUENCE ticket_id_seq INCREMENT BY 50;
+SELECT setval('ticket_id_seq', (SELECT COALESCE(MAX(ticket_id), 0) + 50 FROM tickets), false);
+
+CREATE SEQUENCE IF NOT EXISTS ticket_response_id_seq INCREMENT BY 50;
+ALTER SEQUENCE ticket_response_id_seq INCREMENT BY 50;
+SELECT setval('ticket_response_id_seq', (SELECT COALESCE(MAX(response_id), 0) + 50 FROM ticket_responses), false);
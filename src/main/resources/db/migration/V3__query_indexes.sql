@@ -0,0 +1,18 @@
+-- Indexes for the query shapes in TicketRepository, TicketResponseRepository and BookingRespository.
+-- ticket_id / response_id trail the time column so keyset pages, which tie-break on id, stay index-ordered.
+
+-- /ticket/search and /ticket/count/search for agents
+CREATE INDEX IF NOT EXISTS idx_tickets_agent_status_category_created
+    ON tickets (agent_id, status, category, created_at, ticket_id);
+
+-- /ticket/search and /ticket/count/search for customers
+CREATE INDEX IF NOT EXISTS idx_tickets_customer_status_category_created
+    ON tickets (customer_id, status, category, created_at, ticket_id);
+
+-- Reply threads and reply pages, oldest first
+CREATE INDEX IF NOT EXISTS idx_ticket_responses_ticket_created
+    ON ticket_responses (ticket_id, created_at, response_id);
+
+-- Bookings by owner
+CREATE INDEX IF NOT EXISTS idx_booking_user
+    ON booking (user_id);
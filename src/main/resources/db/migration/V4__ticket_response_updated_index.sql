@@ -0,0 +1,4 @@
+-- Conditional GETs read MAX(updated_at) and COUNT(*) of a ticket's replies (TicketRepository.findVersion);
+-- this keeps that an index-only scan.
+CREATE INDEX IF NOT EXISTS idx_ticket_responses_ticket_updated
+    ON ticket_responses (ticket_id, updated_at);
@@ -0,0 +1,13 @@
+-- Transactional outbox for ticket changes (TicketOutboxEvent). Rows live only until the relay has handed them to
+-- every change-feed subscriber, so the table stays small and needs no index beyond the key it is read in.
+
+CREATE SEQUENCE IF NOT EXISTS ticket_outbox_id_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS ticket_outbox (
+    event_id    BIGINT       PRIMARY KEY,
+    ticket_id   BIGINT       NOT NULL,
+    change_type VARCHAR(32)  NOT NULL,
+    response_id BIGINT,
+    user_id     BIGINT,
+    occurred_at TIMESTAMP    NOT NULL
+);
@@ -0,0 +1,17 @@
+-- Ticket changes a change-feed subscriber kept failing on (TicketOutboxDeadLetter). Written by the outbox relay
+-- in the transaction that deletes the delivered outbox rows, so a failed delivery is never just dropped.
+
+CREATE TABLE IF NOT EXISTS ticket_outbox_dead_letter (
+    dead_letter_id BIGSERIAL     PRIMARY KEY,
+    event_id       BIGINT        NOT NULL,
+    subscriber     VARCHAR(64)   NOT NULL,
+    ticket_id      BIGINT        NOT NULL,
+    change_type    VARCHAR(32)   NOT NULL,
+    response_id    BIGINT,
+    user_id        BIGINT,
+    occurred_at    TIMESTAMP     NOT NULL,
+    error          VARCHAR(1000) NOT NULL,
+    failed_at      TIMESTAMP     NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_ticket_outbox_dead_letter_subscriber ON ticket_outbox_dead_letter (subscriber, event_id);
@@ -0,0 +1,8 @@
+-- Single-row lease naming the instance that runs the ticket outbox relay (TicketOutboxLease). Only the holder reads,
+-- publishes and deletes outbox rows; the others take over once it stops renewing.
+
+CREATE TABLE IF NOT EXISTS ticket_outbox_lease (
+    lease_name VARCHAR(64)  PRIMARY KEY,
+    owner      VARCHAR(128) NOT NULL,
+    expires_at TIMESTAMP    NOT NULL
+);
@@ -0,0 +1,13 @@
+-- Write-behind replies (ReplyDeadLetter) that were acknowledged with 202 but failed to insert on their own.
+-- The text is unbounded so a reply rejected for its length still fits.
+
+CREATE TABLE IF NOT EXISTS reply_dead_letter (
+    dead_letter_id BIGSERIAL     PRIMARY KEY,
+    accepted_id    VARCHAR(36)   NOT NULL,
+    ticket_id      BIGINT        NOT NULL,
+    user_id        BIGINT        NOT NULL,
+    role           VARCHAR(16)   NOT NULL,
+    response_text  TEXT          NOT NULL,
+    error          VARCHAR(1000) NOT NULL,
+    failed_at      TIMESTAMP     NOT NULL
+);
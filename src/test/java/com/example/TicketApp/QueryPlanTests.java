@@ -0,0 +1,108 @@
+package com.example.TicketApp;
+
+import com.example.TicketApp.config.SqlStatementCounter;
+import com.example.TicketApp.services.BookingService;
+import com.example.TicketApp.services.KeysetCursor;
+import com.example.TicketApp.services.TicketService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Fails when a hot query has no usable index. Each test runs the real service call, captures the statements
+ * Hibernate sends through {@link SqlStatementCounter#capture} and EXPLAINs every SELECT with the values it was bound
+ * with. Sequential scans are disabled for the transaction, so any "Seq Scan" left in a plan means the planner had
+ * nothing else to choose, whatever the table size.
+ * <p>
+ * Needs the PostgreSQL database configured in application.properties, so it is skipped unless run with
+ * {@code -Dqueryplans=true}.
+ */
+@SpringBootTest
+@Transactional
+@EnabledIfSystemProperty(named = "queryplans", matches = "true")
+class QueryPlanTests {
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TicketService ticketService;
+
+	@Autowired
+	private BookingService bookingService;
+
+	private long userId;
+
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+		// Rolled back with the test; the service calls only need the user to exist
+		userId = jdbcTemplate.queryForObject("INSERT INTO users (email, password, role, created_at, updated_at) " +
+				"VALUES ('query-plan@test', 'unused', 'AGENT', now(), now()) RETURNING user_id", Long.class);
+	}
+
+	@Test
+	void agentTicketSearchUsesIndex() {
+		assertNoSeqScan(() -> ticketService.getFilteredTickets(userId, "AGENT", "ACTIVE", "PREBOOKING", 0, 10));
+	}
+
+	@Test
+	void customerTicketSearchUsesIndex() {
+		assertNoSeqScan(() -> ticketService.getFilteredTickets(userId, "CUSTOMER", "ALL", "ALL", 0, 10));
+	}
+
+	@Test
+	void keysetTicketSearchUsesIndex() {
+		String cursor = new KeysetCursor(LocalDateTime.now(), Long.MAX_VALUE).encode();
+		assertNoSeqScan(() -> ticketService.getFilteredTicketsAfter(userId, "AGENT", "ALL", "ALL", cursor, 10));
+	}
+
+	@Test
+	void ticketCountUsesIndex() {
+		assertNoSeqScan(() -> ticketService.getCountActiveResolved(userId, "AGENT", "POSTBOOKING"));
+	}
+
+	@Test
+	void replyThreadUsesIndex() {
+		assertNoSeqScan(() -> ticketService.getAllTicketResponses(userId, 1));
+	}
+
+	@Test
+	void threadVersionUsesIndex() {
+		assertNoSeqScan(() -> ticketService.findThreadVersion(1));
+	}
+
+	@Test
+	void bookingOwnerLookupUsesIndex() {
+		assertNoSeqScan(() -> bookingService.validateBooking(userId, 1));
+	}
+
+	private void assertNoSeqScan(Runnable serviceCall) {
+		List<SqlStatementCounter.Statement> statements = SqlStatementCounter.capture(() -> {
+			try {
+				serviceCall.run();
+			} catch (RuntimeException notFound) {
+				// Nothing is seeded, so lookups may end in a not-found error; their queries were still sent
+			}
+		});
+		assertFalse(statements.isEmpty(), "The service call sent no statements");
+		for (SqlStatementCounter.Statement statement : statements) {
+			if (!statement.getSql().trim().toLowerCase().startsWith("select")) {
+				continue;
+			}
+			List<String> plan = jdbcTemplate.queryForList("EXPLAIN " + statement.getSql(), String.class,
+					statement.getParameters().toArray());
+			String text = String.join("\n", plan);
+			assertFalse(text.contains("Seq Scan"), "Sequential scan in plan for: " + statement + "\n" + text);
+		}
+	}
+}
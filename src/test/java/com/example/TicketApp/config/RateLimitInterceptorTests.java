@@ -0,0 +1,148 @@
+package com.example.TicketApp.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.DispatcherType;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimitInterceptorTests {
+
+	private static final String COUNT = "/ticket/count/search";
+	private static final String SEARCH = "/ticket/search";
+
+	private final AtomicLong nanos = new AtomicLong();
+	private SimpleMeterRegistry meterRegistry;
+	private RateLimitInterceptor interceptor;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		interceptor = new RateLimitInterceptor(true, "5:5", COUNT + "=2:0.5, /ticket/export=0:0", 2, 60000, 1000,
+				new ObjectMapper(), meterRegistry, nanos::get);
+	}
+
+	@Test
+	void burstIsAdmittedThenRejectedWithRetryAfter() throws Exception {
+		assertEquals(200, admit(COUNT, "1").getStatus());
+		assertEquals(200, admit(COUNT, "1").getStatus());
+
+		MockHttpServletResponse rejected = admit(COUNT, "1");
+		assertEquals(429, rejected.getStatus());
+		assertEquals("2", rejected.getHeader("Retry-After"));
+		assertTrue(rejected.getContentAsString().contains("Too many requests"));
+		assertEquals(1.0, meterRegistry.get(RateLimitInterceptor.THROTTLED_METRIC).tag("route", COUNT).counter().count());
+	}
+
+	@Test
+	void bucketsRefillOverTime() throws Exception {
+		admit(COUNT, "1");
+		admit(COUNT, "1");
+		assertEquals(429, admit(COUNT, "1").getStatus());
+
+		nanos.addAndGet(TimeUnit.SECONDS.toNanos(2));
+		assertEquals(200, admit(COUNT, "1").getStatus());
+		assertEquals(429, admit(COUNT, "1").getStatus());
+	}
+
+	@Test
+	void usersAndRoutesHaveSeparateBuckets() throws Exception {
+		admit(COUNT, "1");
+		admit(COUNT, "1");
+		assertEquals(429, admit(COUNT, "1").getStatus());
+
+		assertEquals(200, admit(COUNT, "2").getStatus());
+		for (int i = 0; i < 5; i++) {
+			assertEquals(200, admit(SEARCH, "1").getStatus());
+		}
+		assertEquals(429, admit(SEARCH, "1").getStatus());
+	}
+
+	@Test
+	void sameUserIdFromAnotherAddressHasItsOwnBucket() throws Exception {
+		admit(COUNT, "1");
+		admit(COUNT, "1");
+		assertEquals(429, admit(COUNT, "1").getStatus());
+
+		MockHttpServletRequest elsewhere = request(COUNT, "1");
+		elsewhere.setRemoteAddr("10.0.0.2");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		assertTrue(interceptor.preHandle(elsewhere, response, null));
+		assertEquals(200, response.getStatus());
+	}
+
+	@Test
+	void oneAddressCyclingUserIdsIsCappedByItsAddressBucket() throws Exception {
+		// The count route allows 2 per user and twice that per address
+		for (int userId = 1; userId <= 4; userId++) {
+			assertEquals(200, admit(COUNT, String.valueOf(userId)).getStatus());
+		}
+		for (int userId = 5; userId <= 50; userId++) {
+			assertEquals(429, admit(COUNT, String.valueOf(userId)).getStatus());
+		}
+
+		MockHttpServletRequest elsewhere = request(COUNT, "5");
+		elsewhere.setRemoteAddr("10.0.0.2");
+		assertTrue(interceptor.preHandle(elsewhere, new MockHttpServletResponse(), null));
+		// Two address buckets and five user buckets; the rejected ids never got one
+		assertEquals(7.0, meterRegistry.get(RateLimitInterceptor.BUCKETS_METRIC).gauge().value());
+	}
+
+	@Test
+	void aRequestTheUserBucketRejectsLeavesTheAddressTokenForOthers() throws Exception {
+		admit(COUNT, "1");
+		admit(COUNT, "1");
+		for (int i = 0; i < 5; i++) {
+			assertEquals(429, admit(COUNT, "1").getStatus());
+		}
+
+		assertEquals(200, admit(COUNT, "2").getStatus());
+		assertEquals(200, admit(COUNT, "2").getStatus());
+		assertEquals(429, admit(COUNT, "3").getStatus());
+	}
+
+	@Test
+	void disabledRoutesAndAsyncDispatchesAreNotLimited() throws Exception {
+		for (int i = 0; i < 20; i++) {
+			assertEquals(200, admit("/ticket/export", "1").getStatus());
+		}
+		admit(COUNT, "1");
+		admit(COUNT, "1");
+		MockHttpServletRequest dispatch = request(COUNT, "1");
+		dispatch.setDispatcherType(DispatcherType.ASYNC);
+		assertTrue(interceptor.preHandle(dispatch, new MockHttpServletResponse(), null));
+	}
+
+	@Test
+	void malformedLimitsFailAtStartup() {
+		assertThrows(IllegalArgumentException.class, () -> new RateLimitInterceptor(true, "5", "", 2, 60000, 1000,
+				new ObjectMapper(), meterRegistry, nanos::get));
+		assertThrows(IllegalArgumentException.class, () -> new RateLimitInterceptor(true, "5:5", COUNT, 2, 60000, 1000,
+				new ObjectMapper(), meterRegistry, nanos::get));
+		assertThrows(IllegalArgumentException.class, () -> new RateLimitInterceptor(true, "5:5", "", 0.5, 60000, 1000,
+				new ObjectMapper(), meterRegistry, nanos::get));
+	}
+
+	private MockHttpServletResponse admit(String route, String userId) throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		interceptor.preHandle(request(route, userId), response, null);
+		return response;
+	}
+
+	private static MockHttpServletRequest request(String route, String userId) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", route);
+		request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, route);
+		request.setParameter("userId", userId);
+		return request;
+	}
+}
@@ -0,0 +1,146 @@
+package com.example.TicketApp.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Routing between two in-memory databases that each answer {@code SELECT name FROM whoami} with their own name.
+ * The replica's lag comes from a table the test updates, standing in for the PostgreSQL replay-lag query.
+ */
+class ReplicaRoutingDataSourceTests {
+
+	private static final String LAG_QUERY = "SELECT seconds FROM replica_lag";
+
+	private JdbcTemplate primaryDb;
+	private JdbcTemplate replicaDb;
+	private SimpleMeterRegistry meterRegistry;
+	private ReplicaRoutingDataSource routing;
+	private JdbcTemplate jdbcTemplate;
+	private TransactionTemplate readOnly;
+	private TransactionTemplate readWrite;
+
+	@BeforeEach
+	void setUp() {
+		primaryDb = new JdbcTemplate(database("primary"));
+		replicaDb = new JdbcTemplate(database("replica"));
+		replicaDb.execute("CREATE TABLE replica_lag (seconds DOUBLE)");
+		replicaDb.update("INSERT INTO replica_lag VALUES (0)");
+
+		meterRegistry = new SimpleMeterRegistry();
+		Map<String, javax.sql.DataSource> replicas = new LinkedHashMap<>();
+		replicas.put("replica-1", replicaDb.getDataSource());
+		routing = new ReplicaRoutingDataSource(primaryDb.getDataSource(), replicas, LAG_QUERY, 1.0, meterRegistry);
+		routing.checkReplicas();
+
+		LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routing);
+		DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+		readWrite = new TransactionTemplate(transactionManager);
+	}
+
+	@AfterEach
+	void tearDown() {
+		ReplicaRoutingContext.clear();
+		primaryDb.execute("DROP ALL OBJECTS");
+		replicaDb.execute("DROP ALL OBJECTS");
+	}
+
+	@Test
+	void readOnlyTransactionsGoToTheReplica() {
+		assertEquals("replica", readOnly.execute(status -> whoami()));
+		assertEquals(1.0, meterRegistry.get(ReplicaRoutingDataSource.ROUTE_METRIC)
+				.tag("route", "replica-1").tag("reason", "read").counter().count());
+	}
+
+	@Test
+	void writesAndNonTransactionalWorkGoToThePrimary() {
+		// LazyConnectionDataSourceProxy routes once at construction to read connection defaults
+		double before = primaryWrites();
+		assertEquals("primary", readWrite.execute(status -> whoami()));
+		assertEquals("primary", whoami());
+		assertEquals(2.0, primaryWrites() - before);
+	}
+
+	@Test
+	void aLaggingReplicaIsSkippedUntilItCatchesUp() {
+		replicaDb.update("UPDATE replica_lag SET seconds = 5");
+		routing.checkReplicas();
+		assertFalse(routing.isHealthy("replica-1"));
+		assertEquals("primary", readOnly.execute(status -> whoami()));
+		assertEquals(5.0, meterRegistry.get(ReplicaRoutingDataSource.LAG_METRIC).gauge().value());
+
+		replicaDb.update("UPDATE replica_lag SET seconds = 0.2");
+		routing.checkReplicas();
+		assertTrue(routing.isHealthy("replica-1"));
+		assertEquals("replica", readOnly.execute(status -> whoami()));
+	}
+
+	@Test
+	void aReplicaThatFailsItsCheckIsSkipped() {
+		replicaDb.execute("DROP TABLE replica_lag");
+		routing.checkReplicas();
+		assertEquals("primary", readOnly.execute(status -> whoami()));
+		assertEquals(0.0, meterRegistry.get(ReplicaRoutingDataSource.HEALTHY_METRIC).gauge().value());
+		assertEquals(1.0, meterRegistry.get(ReplicaRoutingDataSource.ROUTE_METRIC)
+				.tag("reason", "no-healthy-replica").counter().count());
+	}
+
+	@Test
+	void recentWritersReadFromThePrimary() {
+		ReadYourWritesTracker tracker = new ReadYourWritesTracker(5000, 100);
+		tracker.recordWrite(7);
+		assertTrue(tracker.wroteRecently(7));
+		assertFalse(tracker.wroteRecently(8));
+
+		ReplicaRoutingContext.requirePrimary();
+		assertEquals("primary", readOnly.execute(status -> whoami()));
+		ReplicaRoutingContext.clear();
+		assertEquals("replica", readOnly.execute(status -> whoami()));
+		assertEquals("primary", ReplicaRoutingContext.onPrimary(() -> readOnly.execute(status -> whoami())));
+	}
+
+	@Test
+	void routingFollowsTasksHandedToAnotherThread() throws InterruptedException {
+		ReplicaRoutingContext.requirePrimary();
+		String[] seen = new String[1];
+		Thread thread = new Thread(ReplicaRoutingContext.propagate(() -> seen[0] = readOnly.execute(status -> whoami())));
+		thread.start();
+		thread.join();
+		assertEquals("primary", seen[0]);
+	}
+
+	private double primaryWrites() {
+		return meterRegistry.find(ReplicaRoutingDataSource.ROUTE_METRIC)
+				.tag("route", ReplicaRoutingDataSource.PRIMARY).tag("reason", "write").counters().stream()
+				.mapToDouble(Counter::count).sum();
+	}
+
+	private String whoami() {
+		return jdbcTemplate.queryForObject("SELECT name FROM whoami", String.class);
+	}
+
+	private static DriverManagerDataSource database(String name) {
+		DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+		jdbc.execute("CREATE TABLE whoami (name VARCHAR(16))");
+		jdbc.update("INSERT INTO whoami VALUES (?)", name);
+		return dataSource;
+	}
+}
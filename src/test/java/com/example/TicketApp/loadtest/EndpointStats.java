@@ -0,0 +1,69 @@
+package com.example.TicketApp.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Latency samples and error count for one endpoint. Samples are kept raw so percentiles are exact.
+ */
+class EndpointStats {
+
+	private final String name;
+	private long[] samplesNanos = new long[1 << 14];
+	private int count;
+	private long errors;
+
+	EndpointStats(String name) {
+		this.name = name;
+	}
+
+	synchronized void record(long nanos, boolean success) {
+		if (count == samplesNanos.length) {
+			samplesNanos = Arrays.copyOf(samplesNanos, count * 2);
+		}
+		samplesNanos[count++] = nanos;
+		if (!success) {
+			errors++;
+		}
+	}
+
+	synchronized Summary summarize(double seconds) {
+		long[] sorted = Arrays.copyOf(samplesNanos, count);
+		Arrays.sort(sorted);
+		return new Summary(name, count, errors, count / seconds,
+				percentileMillis(sorted, 0.50), percentileMillis(sorted, 0.99), percentileMillis(sorted, 0.999));
+	}
+
+	private static double percentileMillis(long[] sorted, double percentile) {
+		if (sorted.length == 0) {
+			return 0;
+		}
+		int index = (int) Math.ceil(percentile * sorted.length) - 1;
+		return sorted[Math.max(0, index)] / 1_000_000.0;
+	}
+
+	static final class Summary {
+		final String name;
+		final long requests;
+		final long errors;
+		final double throughput;
+		final double p50;
+		final double p99;
+		final double p999;
+
+		Summary(String name, long requests, long errors, double throughput, double p50, double p99, double p999) {
+			this.name = name;
+			this.requests = requests;
+			this.errors = errors;
+			this.throughput = throughput;
+			this.p50 = p50;
+			this.p99 = p99;
+			this.p999 = p999;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%-12s %8d req %6d err %9.1f req/s   p50 %7.2f ms   p99 %7.2f ms   p999 %7.2f ms",
+					name, requests, errors, throughput, p50, p99, p999);
+		}
+	}
+}
@@ -0,0 +1,160 @@
+package com.example.TicketApp.loadtest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-loop HTTP load driver: each worker sends the next request from the weighted mix as soon as the
+ * previous one returns. Requests made during warm-up are not recorded.
+ */
+class LoadDriver {
+
+	static final String LOGIN = "login";
+	static final String SEARCH = "search";
+	static final String COUNT = "count";
+	static final String RESPONSES = "responses";
+	static final String REPLY = "reply";
+
+	private final String baseUrl;
+	private final LoadTestDataSeeder data;
+	private final Map<String, Integer> mix;
+	private final Map<String, EndpointStats> stats = new LinkedHashMap<>();
+	private final int totalWeight;
+
+	private volatile boolean recording;
+	private volatile boolean stopped;
+
+	LoadDriver(String baseUrl, LoadTestDataSeeder data, Map<String, Integer> mix) {
+		this.baseUrl = baseUrl;
+		this.data = data;
+		this.mix = mix;
+		int weight = 0;
+		for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+			stats.put(entry.getKey(), new EndpointStats(entry.getKey()));
+			weight += entry.getValue();
+		}
+		this.totalWeight = weight;
+	}
+
+	List<EndpointStats.Summary> run(int concurrency, int warmupSeconds, int durationSeconds) throws InterruptedException {
+		ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+		for (int i = 0; i < concurrency; i++) {
+			workers.execute(this::workLoop);
+		}
+		Thread.sleep(TimeUnit.SECONDS.toMillis(warmupSeconds));
+		recording = true;
+		long start = System.nanoTime();
+		Thread.sleep(TimeUnit.SECONDS.toMillis(durationSeconds));
+		recording = false;
+		double seconds = (System.nanoTime() - start) / 1e9;
+		stopped = true;
+		workers.shutdown();
+		workers.awaitTermination(30, TimeUnit.SECONDS);
+
+		List<EndpointStats.Summary> summaries = new ArrayList<>();
+		for (EndpointStats endpoint : stats.values()) {
+			summaries.add(endpoint.summarize(seconds));
+		}
+		return summaries;
+	}
+
+	private void workLoop() {
+		while (!stopped) {
+			String endpoint = pick();
+			long start = System.nanoTime();
+			boolean success;
+			try {
+				success = send(endpoint);
+			} catch (IOException e) {
+				success = false;
+			}
+			long elapsed = System.nanoTime() - start;
+			if (recording) {
+				stats.get(endpoint).record(elapsed, success);
+			}
+		}
+	}
+
+	private String pick() {
+		int roll = ThreadLocalRandom.current().nextInt(totalWeight);
+		for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+			roll -= entry.getValue();
+			if (roll < 0) {
+				return entry.getKey();
+			}
+		}
+		throw new IllegalStateException("Empty request mix");
+	}
+
+	private boolean send(String endpoint) throws IOException {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		long ticketId = 1 + random.nextInt(data.getTickets());
+		long customerId = data.customerIdForTicket(ticketId);
+		switch (endpoint) {
+			case LOGIN:
+				int customer = random.nextInt(data.getCustomers());
+				return post("/login", "{\"email\":\"customer" + customer + "@load.test\",\"password\":\"password\"}") == 200;
+			case SEARCH:
+				boolean agent = random.nextBoolean();
+				long userId = agent ? data.agentIdForTicket(ticketId) : customerId;
+				return get("/ticket/search?userId=" + userId + "&role=" + (agent ? "AGENT" : "CUSTOMER") +
+						"&status=ALL&category=ALL&page=" + random.nextInt(3) + "&size=10") == 200;
+			case COUNT:
+				return get("/ticket/count/search?userId=" + data.agentIdForTicket(ticketId) + "&role=AGENT&category=ALL") == 200;
+			case RESPONSES:
+				return get("/ticket/" + ticketId + "/response?userId=" + customerId) == 200;
+			case REPLY:
+				int status = post("/ticket-response/" + ticketId, "{\"user_id\":" + customerId +
+						",\"role\":\"CUSTOMER\",\"replyData\":{\"responseText\":\"load test reply\"}}");
+				return status == 201 || status == 202;
+			default:
+				throw new IllegalArgumentException("Unknown endpoint " + endpoint);
+		}
+	}
+
+	private int get(String path) throws IOException {
+		HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+		return complete(connection);
+	}
+
+	private int post(String path, String json) throws IOException {
+		HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+		connection.setRequestMethod("POST");
+		connection.setDoOutput(true);
+		connection.setRequestProperty("Content-Type", "application/json");
+		try (OutputStream out = connection.getOutputStream()) {
+			out.write(json.getBytes(StandardCharsets.UTF_8));
+		}
+		return complete(connection);
+	}
+
+	// Reads the whole body so the connection can be reused by keep-alive
+	private int complete(HttpURLConnection connection) throws IOException {
+		int status = connection.getResponseCode();
+		InputStream body = status >= 400 ? connection.getErrorStream() : connection.getInputStream();
+		if (body != null) {
+			try (InputStream in = body) {
+				byte[] buffer = new byte[8192];
+				ByteArrayOutputStream sink = new ByteArrayOutputStream();
+				int read;
+				while ((read = in.read(buffer)) != -1) {
+					sink.write(buffer, 0, read);
+				}
+			}
+		}
+		return status;
+	}
+}
@@ -0,0 +1,146 @@
+package com.example.TicketApp.loadtest;
+
+import com.example.TicketApp.services.AgentAssignmentPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeds the embedded database with configurable volumes of users, tickets and replies.
+ * Customers are {@code customer<i>@load.test} and agents {@code agent<i>@load.test}, all with password "password".
+ */
+@Component
+@Profile("loadtest")
+public class LoadTestDataSeeder implements ApplicationRunner {
+
+	private static final Logger logger = LoggerFactory.getLogger(LoadTestDataSeeder.class);
+	private static final int BATCH_SIZE = 1000;
+
+	private final JdbcTemplate jdbcTemplate;
+	private final DataSource dataSource;
+	private final AgentAssignmentPool agentAssignmentPool;
+
+	@Value("${loadtest.seed.customers}")
+	private int customers;
+	@Value("${loadtest.seed.agents}")
+	private int agents;
+	@Value("${loadtest.seed.tickets}")
+	private int tickets;
+	@Value("${loadtest.seed.replies-per-ticket}")
+	private int repliesPerTicket;
+
+	@Autowired
+	public LoadTestDataSeeder(JdbcTemplate jdbcTemplate, DataSource dataSource, AgentAssignmentPool agentAssignmentPool) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.dataSource = dataSource;
+		this.agentAssignmentPool = agentAssignmentPool;
+	}
+
+	public int getCustomers() {
+		return customers;
+	}
+
+	public int getAgents() {
+		return agents;
+	}
+
+	public int getTickets() {
+		return tickets;
+	}
+
+	// Customers get ids 1..customers, agents customers+1..customers+agents
+	public long customerId(int index) {
+		return index + 1;
+	}
+
+	public long agentIdForTicket(long ticketId) {
+		return customers + 1 + (ticketId % agents);
+	}
+
+	public long customerIdForTicket(long ticketId) {
+		return 1 + (ticketId % customers);
+	}
+
+	@Override
+	public void run(ApplicationArguments args) {
+		long start = System.currentTimeMillis();
+		Random random = new Random(42);
+		Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+		List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+		for (int i = 0; i < customers + agents; i++) {
+			boolean agent = i >= customers;
+			String email = agent ? "agent" + (i - customers) + "@load.test" : "customer" + i + "@load.test";
+			rows.add(new Object[]{(long) i + 1, email, "password", agent ? "AGENT" : "CUSTOMER", now, now});
+			flushIfFull("INSERT INTO users (user_id, email, password, role, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)", rows);
+		}
+		flush("INSERT INTO users (user_id, email, password, role, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)", rows);
+
+		String ticketSql = "INSERT INTO tickets (ticket_id, customer_id, agent_id, category, description, status, created_at, updated_at) " +
+				"VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+		String replySql = "INSERT INTO ticket_responses (response_id, ticket_id, user_id, role, response_text, created_at, updated_at) " +
+				"VALUES (?, ?, ?, ?, ?, ?, ?)";
+		List<Object[]> replies = new ArrayList<>(BATCH_SIZE);
+		long responseId = 0;
+		LocalDateTime base = LocalDateTime.now().minusDays(365);
+		for (long ticketId = 1; ticketId <= tickets; ticketId++) {
+			Timestamp createdAt = Timestamp.valueOf(base.plusMinutes(ticketId));
+			rows.add(new Object[]{ticketId, customerIdForTicket(ticketId), agentIdForTicket(ticketId),
+					random.nextBoolean() ? "PREBOOKING" : "POSTBOOKING", "Load test ticket " + ticketId,
+					random.nextInt(4) == 0 ? "RESOLVED" : "ACTIVE", createdAt, createdAt});
+			flushIfFull(ticketSql, rows);
+			for (int r = 0; r < repliesPerTicket; r++) {
+				boolean agent = r % 2 == 1;
+				replies.add(new Object[]{++responseId, ticketId,
+						agent ? agentIdForTicket(ticketId) : customerIdForTicket(ticketId),
+						agent ? "AGENT" : "CUSTOMER", "Reply " + r + " on ticket " + ticketId,
+						Timestamp.valueOf(base.plusMinutes(ticketId).plusSeconds(r + 1)), createdAt});
+				if (replies.size() >= BATCH_SIZE) {
+					flush(ticketSql, rows);
+					flush(replySql, replies);
+				}
+			}
+		}
+		flush(ticketSql, rows);
+		flush(replySql, replies);
+
+		// Move id generators past the seeded rows
+		jdbcTemplate.execute("ALTER TABLE users ALTER COLUMN user_id RESTART WITH " + (customers + agents + 1));
+		jdbcTemplate.execute("ALTER SEQUENCE ticket_id_seq RESTART WITH " + (tickets + 50));
+		jdbcTemplate.execute("ALTER SEQUENCE ticket_response_id_seq RESTART WITH " + (responseId + 50));
+
+		new ResourceDatabasePopulator(new ClassPathResource("db/migration/V3__query_indexes.sql")).execute(dataSource);
+		agentAssignmentPool.refresh();
+
+		logger.info("Seeded {} users, {} tickets and {} replies in {} ms", customers + agents, tickets, responseId,
+				System.currentTimeMillis() - start);
+	}
+
+	private void flushIfFull(String sql, List<Object[]> rows) {
+		if (rows.size() >= BATCH_SIZE) {
+			flush(sql, rows);
+		}
+	}
+
+	private void flush(String sql, List<Object[]> rows) {
+		if (!rows.isEmpty()) {
+			jdbcTemplate.batchUpdate(sql, rows);
+			rows.clear();
+		}
+	}
+}
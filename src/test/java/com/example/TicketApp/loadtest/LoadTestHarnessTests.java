@@ -0,0 +1,86 @@
+package com.example.TicketApp.loadtest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Replays the production request mix against the app on an embedded database and fails when any endpoint's p99
+ * exceeds {@code loadtest.max-p99-ms}. Skipped unless run with {@code -Dloadtest=true}; volumes, mix and
+ * thresholds are in application-loadtest.properties and can be overridden with -D.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("loadtest")
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class LoadTestHarnessTests {
+
+	private static final Logger logger = LoggerFactory.getLogger(LoadTestHarnessTests.class);
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private LoadTestDataSeeder data;
+
+	@Value("${loadtest.duration-seconds}")
+	private int durationSeconds;
+	@Value("${loadtest.warmup-seconds}")
+	private int warmupSeconds;
+	@Value("${loadtest.concurrency}")
+	private int concurrency;
+	@Value("${loadtest.max-p99-ms}")
+	private double maxP99Millis;
+
+	@Value("${loadtest.mix.login}")
+	private int loginWeight;
+	@Value("${loadtest.mix.search}")
+	private int searchWeight;
+	@Value("${loadtest.mix.count}")
+	private int countWeight;
+	@Value("${loadtest.mix.responses}")
+	private int responsesWeight;
+	@Value("${loadtest.mix.reply}")
+	private int replyWeight;
+
+	@Test
+	void mixedLoadStaysWithinLatencyBudget() throws InterruptedException {
+		Map<String, Integer> mix = new LinkedHashMap<>();
+		mix.put(LoadDriver.LOGIN, loginWeight);
+		mix.put(LoadDriver.SEARCH, searchWeight);
+		mix.put(LoadDriver.COUNT, countWeight);
+		mix.put(LoadDriver.RESPONSES, responsesWeight);
+		mix.put(LoadDriver.REPLY, replyWeight);
+		mix.values().removeIf(weight -> weight <= 0);
+
+		LoadDriver driver = new LoadDriver("http://localhost:" + port, data, mix);
+		List<EndpointStats.Summary> summaries = driver.run(concurrency, warmupSeconds, durationSeconds);
+
+		List<String> regressions = new ArrayList<>();
+		StringBuilder report = new StringBuilder("Load test results (" + concurrency + " workers, " + durationSeconds + " s):");
+		for (EndpointStats.Summary summary : summaries) {
+			report.append('\n').append(summary);
+			if (summary.p99 > maxP99Millis) {
+				regressions.add(summary.name + " p99 " + summary.p99 + " ms > " + maxP99Millis + " ms");
+			}
+			if (summary.errors > 0) {
+				regressions.add(summary.name + " had " + summary.errors + " failed requests");
+			}
+		}
+		logger.info(report.toString());
+
+		assertTrue(regressions.isEmpty(), String.join("; ", regressions));
+	}
+}
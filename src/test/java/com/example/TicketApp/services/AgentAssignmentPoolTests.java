@@ -0,0 +1,173 @@
+package com.example.TicketApp.services;
+
+import com.example.TicketApp.entity.User;
+import com.example.TicketApp.repository.TicketRepository;
+import com.example.TicketApp.repository.UserRespository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Concurrent assign and release against the pool's lock-free bookkeeping: afterwards every agent must still have
+ * exactly one slot, carrying its counter, and the counters must add up to what the threads did.
+ */
+class AgentAssignmentPoolTests {
+
+	private static final int AGENTS = 8;
+	private static final int THREADS = 16;
+	private static final int ROUNDS = 2000;
+
+	private final UserRespository userRespository = mock(UserRespository.class);
+	private final TicketRepository ticketRepository = mock(TicketRepository.class);
+	private AgentAssignmentPool pool;
+
+	@BeforeEach
+	void setUp() {
+		List<User> agents = new ArrayList<>();
+		List<Object[]> activeCounts = new ArrayList<>();
+		for (long agentId = 1; agentId <= AGENTS; agentId++) {
+			agents.add(agent(agentId));
+			activeCounts.add(new Object[]{agentId, agentId * 3});
+		}
+		when(userRespository.findByRole(User.Role.AGENT)).thenReturn(agents);
+		when(ticketRepository.countActiveTicketsPerAgent()).thenReturn(activeCounts);
+		pool = new AgentAssignmentPool(userRespository, ticketRepository);
+		pool.refresh();
+	}
+
+	@Test
+	void concurrentAssignAndReleaseKeepOneSlotPerAgentAndExactLoads() throws Exception {
+		Map<Long, Integer> expected = new ConcurrentHashMap<>();
+		for (long agentId = 1; agentId <= AGENTS; agentId++) {
+			expected.put(agentId, pool.getLoad(agentId));
+		}
+
+		runConcurrently(() -> {
+			List<Long> held = new ArrayList<>();
+			for (int i = 0; i < ROUNDS; i++) {
+				if (held.isEmpty() || ThreadLocalRandom.current().nextBoolean()) {
+					long agentId = pool.assign();
+					held.add(agentId);
+					expected.merge(agentId, 1, Integer::sum);
+				} else {
+					long agentId = held.remove(ThreadLocalRandom.current().nextInt(held.size()));
+					pool.release(agentId);
+					expected.merge(agentId, -1, Integer::sum);
+				}
+			}
+		});
+
+		assertSlotsMatchLoads();
+		for (long agentId = 1; agentId <= AGENTS; agentId++) {
+			assertEquals(expected.get(agentId).intValue(), pool.getLoad(agentId), "load of agent " + agentId);
+		}
+	}
+
+	@Test
+	void assignmentGoesToTheLeastLoadedAgent() throws Exception {
+		runConcurrently(() -> {
+			for (int i = 0; i < ROUNDS / 10; i++) {
+				pool.assign();
+			}
+		});
+
+		for (int i = 0; i < 50; i++) {
+			int minimum = Integer.MAX_VALUE;
+			for (long agentId = 1; agentId <= AGENTS; agentId++) {
+				minimum = Math.min(minimum, pool.getLoad(agentId));
+			}
+			long chosen = pool.assign();
+			assertEquals(minimum + 1, pool.getLoad(chosen));
+		}
+		assertSlotsMatchLoads();
+	}
+
+	@Test
+	void concurrentRegistrationsAddOneSlot() throws Exception {
+		User newcomer = agent(AGENTS + 1);
+		runConcurrently(() -> pool.registerAgent(newcomer));
+
+		assertSlotsMatchLoads();
+		assertEquals(AGENTS + 1, pool.slots().size());
+		assertEquals(0, pool.getLoad(AGENTS + 1));
+	}
+
+	@Test
+	void releaseNeverTakesALoadBelowZero() {
+		long newcomer = AGENTS + 1;
+		pool.registerAgent(agent(newcomer));
+		pool.release(newcomer);
+		pool.release(AGENTS + 5);
+
+		assertEquals(0, pool.getLoad(newcomer));
+		assertEquals(newcomer, pool.assign());
+		assertSlotsMatchLoads();
+	}
+
+	private void assertSlotsMatchLoads() {
+		List<long[]> slots = pool.slots();
+		Set<Long> agents = new HashSet<>();
+		int previous = Integer.MIN_VALUE;
+		for (long[] slot : slots) {
+			assertTrue(agents.add(slot[0]), "agent " + slot[0] + " has more than one slot");
+			assertEquals(pool.getLoad(slot[0]), slot[1], "slot load of agent " + slot[0]);
+			assertTrue(slot[1] >= previous, "slots out of load order");
+			previous = (int) slot[1];
+		}
+		for (long agentId = 1; agentId <= AGENTS; agentId++) {
+			assertTrue(agents.contains(agentId), "agent " + agentId + " has no slot");
+		}
+	}
+
+	private static void runConcurrently(Runnable task) throws Exception {
+		ExecutorService threads = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicInteger ready = new AtomicInteger();
+		List<Future<?>> results = new ArrayList<>();
+		try {
+			for (int i = 0; i < THREADS; i++) {
+				results.add(threads.submit(() -> {
+					ready.incrementAndGet();
+					start.await();
+					task.run();
+					return null;
+				}));
+			}
+			while (ready.get() < THREADS) {
+				Thread.yield();
+			}
+			start.countDown();
+			for (Future<?> result : results) {
+				result.get(30, TimeUnit.SECONDS);
+			}
+		} finally {
+			threads.shutdownNow();
+		}
+	}
+
+	private static User agent(long agentId) {
+		User agent = new User();
+		agent.setUserId(agentId);
+		agent.setEmail("agent" + agentId + "@test");
+		agent.setRole(User.Role.AGENT);
+		return agent;
+	}
+}
@@ -0,0 +1,266 @@
+package com.example.TicketApp.services;
+
+import com.example.TicketApp.DTO.PendingReplyDTO;
+import com.example.TicketApp.controller.TicketResponseController;
+import com.example.TicketApp.customErrors.ServiceOverloadedException;
+import com.example.TicketApp.entity.ReplyDeadLetter;
+import com.example.TicketApp.repository.ReplyDeadLetterRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * The write-behind queue against a mocked service: batching by size and by time, backpressure, per-ticket order,
+ * draining on shutdown and dead-lettering. Every batch the writer hands to the service is recorded in
+ * {@code batches}.
+ */
+class ReplyWriteBehindQueueTests {
+
+	private final TicketResponseService ticketResponseService = mock(TicketResponseService.class);
+	private final ReplyDeadLetterRepository replyDeadLetterRepository = mock(ReplyDeadLetterRepository.class);
+	private final BlockingQueue<List<PendingReplyDTO>> batches = new LinkedBlockingQueue<>();
+	private ReplyWriteBehindQueue queue;
+
+	@AfterEach
+	void tearDown() throws Exception {
+		if (queue != null) {
+			queue.shutdown();
+		}
+	}
+
+	@Test
+	void aFullBatchIsWrittenWithoutWaitingForTheDelay() throws Exception {
+		recordBatches();
+		// The writer also waits out this delay on an idle queue before it sees shutdown, so it is kept short
+		start(100, 5, 2000);
+
+		long started = System.nanoTime();
+		for (int i = 0; i < 10; i++) {
+			accept(1, "reply " + i);
+		}
+
+		assertEquals(5, nextBatch().size());
+		assertEquals(5, nextBatch().size());
+		assertTrue(System.nanoTime() - started < TimeUnit.MILLISECONDS.toNanos(2000));
+	}
+
+	@Test
+	void aPartialBatchIsWrittenAfterTheDelay() throws Exception {
+		recordBatches();
+		start(100, 50, 100);
+
+		long started = System.nanoTime();
+		accept(1, "one");
+		accept(1, "two");
+		accept(2, "three");
+
+		assertEquals(3, nextBatch().size());
+		assertTrue(System.nanoTime() - started >= TimeUnit.MILLISECONDS.toNanos(100));
+	}
+
+	@Test
+	void aFullQueueRejectsRepliesAndTheControllerAnswers503() throws Exception {
+		CountDownLatch writerBlocked = new CountDownLatch(1);
+		CountDownLatch unblock = new CountDownLatch(1);
+		doAnswer(invocation -> {
+			writerBlocked.countDown();
+			unblock.await();
+			return null;
+		}).when(ticketResponseService).createTicketReplies(anyList());
+		start(2, 1, 1);
+
+		try {
+			accept(1, "taken by the writer");
+			assertTrue(writerBlocked.await(5, TimeUnit.SECONDS));
+			accept(1, "queued");
+			accept(1, "queued");
+			assertThrows(ServiceOverloadedException.class, () -> accept(1, "rejected"));
+
+			ResponseEntity<Map<String, Object>> response = new TicketResponseController(ticketResponseService, queue)
+					.createTicketResponse(1, replyRequest("rejected"));
+			assertEquals(503, response.getStatusCodeValue());
+			assertEquals("1", response.getHeaders().getFirst("Retry-After"));
+		} finally {
+			unblock.countDown();
+		}
+	}
+
+	@Test
+	void repliesOfEachTicketAreWrittenInArrivalOrder() throws Exception {
+		recordBatches();
+		start(10000, 7, 5);
+
+		int tickets = 4;
+		int perTicket = 200;
+		ExecutorService senders = Executors.newFixedThreadPool(tickets);
+		try {
+			List<Future<?>> sent = new ArrayList<>();
+			for (int t = 0; t < tickets; t++) {
+				long ticketId = t;
+				sent.add(senders.submit(() -> {
+					for (int i = 0; i < perTicket; i++) {
+						accept(ticketId, String.valueOf(i));
+					}
+					return null;
+				}));
+			}
+			for (Future<?> result : sent) {
+				result.get(30, TimeUnit.SECONDS);
+			}
+		} finally {
+			senders.shutdownNow();
+		}
+		queue.shutdown();
+
+		Map<Long, List<Integer>> written = new HashMap<>();
+		for (List<PendingReplyDTO> batch : batches) {
+			for (PendingReplyDTO reply : batch) {
+				written.computeIfAbsent(reply.getTicketId(), id -> new ArrayList<>())
+						.add(Integer.parseInt(reply.getResponseText()));
+			}
+		}
+		for (long t = 0; t < tickets; t++) {
+			List<Integer> order = written.get(t);
+			assertEquals(perTicket, order.size());
+			for (int i = 0; i < perTicket; i++) {
+				assertEquals(i, order.get(i).intValue(), "ticket " + t);
+			}
+		}
+	}
+
+	@Test
+	void shutdownWritesEveryAcceptedReplyAndThenRejects() throws Exception {
+		CountDownLatch unblock = new CountDownLatch(1);
+		doAnswer(invocation -> {
+			unblock.await();
+			batches.add(new ArrayList<>(invocation.getArgument(0)));
+			return null;
+		}).when(ticketResponseService).createTicketReplies(anyList());
+		start(1000, 10, 1);
+
+		for (int i = 0; i < 95; i++) {
+			accept(1, "reply " + i);
+		}
+		Thread stopping = new Thread(() -> {
+			try {
+				queue.shutdown();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		int accepted = 95;
+		try {
+			stopping.start();
+			// Replies accepted until admission closes must still be written
+			long deadline = System.currentTimeMillis() + 5000;
+			while (System.currentTimeMillis() < deadline) {
+				try {
+					accept(1, "late");
+					accepted++;
+				} catch (ServiceOverloadedException closed) {
+					break;
+				}
+			}
+			assertThrows(ServiceOverloadedException.class, () -> accept(1, "late"));
+		} finally {
+			unblock.countDown();
+		}
+		stopping.join(10000);
+
+		int written = 0;
+		for (List<PendingReplyDTO> batch : batches) {
+			written += batch.size();
+		}
+		assertEquals(accepted, written);
+		assertEquals(0, queue.getQueueSize());
+	}
+
+	@Test
+	void aRowThatFailsOnItsOwnIsDeadLetteredAndTheRestOfItsBatchWritten() throws Exception {
+		doAnswer(invocation -> {
+			List<PendingReplyDTO> batch = invocation.getArgument(0);
+			for (PendingReplyDTO reply : batch) {
+				if (reply.getResponseText().equals("bad")) {
+					throw new IllegalStateException("constraint violated");
+				}
+			}
+			batches.add(new ArrayList<>(batch));
+			return null;
+		}).when(ticketResponseService).createTicketReplies(anyList());
+		start(100, 10, 50);
+
+		accept(1, "first");
+		String badId = accept(1, "bad");
+		accept(1, "last");
+		queue.shutdown();
+
+		List<String> written = new ArrayList<>();
+		for (List<PendingReplyDTO> batch : batches) {
+			for (PendingReplyDTO reply : batch) {
+				written.add(reply.getResponseText());
+			}
+		}
+		assertEquals(Arrays.asList("first", "last"), written);
+		ArgumentCaptor<ReplyDeadLetter> deadLetter = ArgumentCaptor.forClass(ReplyDeadLetter.class);
+		verify(replyDeadLetterRepository, times(1)).save(deadLetter.capture());
+		assertEquals(badId, deadLetter.getValue().getAcceptedId());
+		assertEquals("bad", deadLetter.getValue().getResponseText());
+		assertTrue(deadLetter.getValue().getError().contains("constraint violated"));
+	}
+
+	private void recordBatches() {
+		doAnswer(invocation -> {
+			// The writer reuses its batch list, so keep a copy
+			batches.add(new ArrayList<>(invocation.getArgument(0)));
+			return null;
+		}).when(ticketResponseService).createTicketReplies(anyList());
+	}
+
+	private void start(int capacity, int batchSize, long maxDelayMs) {
+		queue = new ReplyWriteBehindQueue(ticketResponseService, replyDeadLetterRepository, true, capacity, batchSize,
+				maxDelayMs, 10);
+		queue.start();
+	}
+
+	private String accept(long ticketId, String text) {
+		return queue.accept(ticketId, 7, "CUSTOMER", Collections.singletonMap("responseText", text));
+	}
+
+	private List<PendingReplyDTO> nextBatch() throws InterruptedException {
+		List<PendingReplyDTO> batch = batches.poll(5, TimeUnit.SECONDS);
+		assertTrue(batch != null, "No batch written within 5s");
+		return batch;
+	}
+
+	private static Map<String, Object> replyRequest(String text) {
+		Map<String, Object> body = new HashMap<>();
+		body.put("user_id", 7);
+		body.put("role", "CUSTOMER");
+		body.put("replyData", new HashMap<>(Collections.singletonMap("responseText", text)));
+		return body;
+	}
+}
@@ -0,0 +1,124 @@
+package com.example.TicketApp.services;
+
+import com.example.TicketApp.DTO.TicketChangeEvent;
+import com.example.TicketApp.entity.TicketOutboxEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TicketChangeFeedTests {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final TicketChangeFeed feed = new TicketChangeFeed(meterRegistry, 3, 1);
+
+	@AfterEach
+	void tearDown() {
+		feed.shutdown();
+	}
+
+	@Test
+	void everySubscriberSeesEveryEventInOrder() throws Exception {
+		List<Long> first = new CopyOnWriteArrayList<>();
+		List<Long> second = new CopyOnWriteArrayList<>();
+		feed.subscribe("first", event -> first.add(event.getEventId()));
+		feed.subscribe("second", event -> second.add(event.getEventId()));
+
+		List<Long> expected = new ArrayList<>();
+		for (long batch = 0; batch < 50; batch++) {
+			feed.publish(Arrays.asList(event(batch * 2 + 1), event(batch * 2 + 2)));
+			expected.add(batch * 2 + 1);
+			expected.add(batch * 2 + 2);
+		}
+		feed.publish(Collections.singletonList(event(101))).get(5, TimeUnit.SECONDS);
+		expected.add(101L);
+
+		assertEquals(expected, first);
+		assertEquals(expected, second);
+	}
+
+	@Test
+	void publishCompletesOnlyOnceEverySubscriberHasHandledTheBatch() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		feed.subscribe("fast", event -> { });
+		feed.subscribe("slow", event -> {
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+
+		CompletableFuture<List<TicketChangeFeed.DeadLetter>> handled = feed.publish(Collections.singletonList(event(1)));
+		Thread.sleep(100);
+		assertFalse(handled.isDone());
+		release.countDown();
+		handled.get(5, TimeUnit.SECONDS);
+	}
+
+	@Test
+	void aFailingSubscriberDoesNotStopTheOthers() throws Exception {
+		List<Long> seen = new CopyOnWriteArrayList<>();
+		feed.subscribe("broken", event -> {
+			throw new IllegalStateException("boom");
+		});
+		feed.subscribe("working", event -> seen.add(event.getEventId()));
+
+		List<TicketChangeFeed.DeadLetter> deadLetters = feed.publish(Arrays.asList(event(1), event(2)))
+				.get(5, TimeUnit.SECONDS);
+
+		assertEquals(Arrays.asList(1L, 2L), seen);
+		assertEquals(6.0, meterRegistry.get(TicketChangeFeed.FAILED_METRIC).tag("subscriber", "broken").counter().count());
+		assertEquals(2, deadLetters.size());
+		assertEquals("broken", deadLetters.get(0).getSubscriber());
+		assertEquals(1L, deadLetters.get(0).getEvent().getEventId());
+		assertEquals(2L, deadLetters.get(1).getEvent().getEventId());
+	}
+
+	@Test
+	void aFailedEventIsRetriedBeforeLaterOnes() throws Exception {
+		List<Long> seen = new CopyOnWriteArrayList<>();
+		AtomicInteger failures = new AtomicInteger();
+		feed.subscribe("flaky", event -> {
+			if (event.getEventId() == 1 && failures.getAndIncrement() < 2) {
+				throw new IllegalStateException("not yet");
+			}
+			seen.add(event.getEventId());
+		});
+
+		List<TicketChangeFeed.DeadLetter> deadLetters = feed.publish(Arrays.asList(event(1), event(2)))
+				.get(5, TimeUnit.SECONDS);
+
+		assertEquals(Arrays.asList(1L, 2L), seen);
+		assertTrue(deadLetters.isEmpty());
+	}
+
+	@Test
+	void closedSubscriptionsGetNothingMore() throws Exception {
+		List<Long> seen = new CopyOnWriteArrayList<>();
+		TicketChangeFeed.Subscription subscription = feed.subscribe("closing", event -> seen.add(event.getEventId()));
+		feed.publish(Collections.singletonList(event(1))).get(5, TimeUnit.SECONDS);
+		subscription.close();
+		feed.publish(Collections.singletonList(event(2))).get(5, TimeUnit.SECONDS);
+		assertEquals(Collections.singletonList(1L), seen);
+		assertTrue(feed.publish(Collections.singletonList(event(3))).isDone());
+	}
+
+	private static TicketChangeEvent event(long eventId) {
+		return new TicketChangeEvent(eventId, 1, TicketOutboxEvent.Type.REPLY_CREATED, eventId, 1L, LocalDateTime.now());
+	}
+}
@@ -0,0 +1,168 @@
+package com.example.TicketApp.services;
+
+import com.example.TicketApp.DTO.TicketChangeEvent;
+import com.example.TicketApp.DTO.TicketResponseDTO;
+import com.example.TicketApp.entity.TicketOutboxDeadLetter;
+import com.example.TicketApp.entity.TicketOutboxEvent;
+import com.example.TicketApp.loadtest.LoadTestDataSeeder;
+import com.example.TicketApp.repository.TicketOutboxDeadLetterRepository;
+import com.example.TicketApp.repository.TicketOutboxLeaseRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ticket writes reach change-feed subscribers through the outbox table. Same context as QueryCountTests, so both
+ * share one seeded database, search index and second-level cache.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:querycount;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+		"ticket.search.index-dir=target/querycount-index",
+		"loadtest.seed.customers=20",
+		"loadtest.seed.agents=3",
+		"loadtest.seed.tickets=200",
+		"loadtest.seed.replies-per-ticket=30"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("loadtest")
+class TicketOutboxTests {
+
+	@Autowired
+	private LoadTestDataSeeder data;
+
+	@Autowired
+	private TicketResponseService ticketResponseService;
+
+	@Autowired
+	private TicketChangeFeed ticketChangeFeed;
+
+	@Autowired
+	private TicketOutbox ticketOutbox;
+
+	@Autowired
+	private TicketOutboxDeadLetterRepository ticketOutboxDeadLetterRepository;
+
+	@Autowired
+	private TicketOutboxLeaseRepository ticketOutboxLeaseRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void replyCreateAndDeleteArePublishedInOrderAndRemoved() throws Exception {
+		long ticketId = 8;
+		long customerId = data.customerIdForTicket(ticketId);
+		BlockingQueue<TicketChangeEvent> received = new LinkedBlockingQueue<>();
+		try (TicketChangeFeed.Subscription ignored = ticketChangeFeed.subscribe("test", event -> {
+			if (event.getTicketId() == ticketId) {
+				received.add(event);
+			}
+		})) {
+			TicketResponseDTO reply = ticketResponseService.createTicketReply(ticketId, customerId, "CUSTOMER",
+					Collections.singletonMap("responseText", "outbox"));
+			ticketResponseService.deleteTicketResponse(customerId, ticketId, reply.getResponseId());
+
+			TicketChangeEvent created = received.poll(5, TimeUnit.SECONDS);
+			TicketChangeEvent deleted = received.poll(5, TimeUnit.SECONDS);
+			assertNotNull(created);
+			assertNotNull(deleted);
+			assertEquals(TicketOutboxEvent.Type.REPLY_CREATED, created.getType());
+			assertEquals(TicketOutboxEvent.Type.REPLY_DELETED, deleted.getType());
+			assertEquals(reply.getResponseId(), deleted.getResponseId());
+			assertEquals(customerId, deleted.getUserId().longValue());
+		}
+		awaitEmptyOutbox();
+	}
+
+	@Test
+	void aRejectedWriteLeavesNoEvent() throws Exception {
+		long ticketId = 9;
+		BlockingQueue<TicketChangeEvent> received = new LinkedBlockingQueue<>();
+		try (TicketChangeFeed.Subscription ignored = ticketChangeFeed.subscribe("rejected", event -> {
+			if (event.getTicketId() == ticketId) {
+				received.add(event);
+			}
+		})) {
+			long otherCustomer = data.customerIdForTicket(ticketId) + 1;
+			assertThrows(RuntimeException.class, () -> ticketResponseService.deleteTicketResponse(otherCustomer, ticketId, -1));
+			awaitEmptyOutbox();
+			assertNull(received.poll(300, TimeUnit.MILLISECONDS));
+		}
+	}
+
+	@Test
+	void eventsASubscriberKeepsFailingOnAreDeadLettered() throws Exception {
+		long ticketId = 10;
+		long customerId = data.customerIdForTicket(ticketId);
+		try (TicketChangeFeed.Subscription ignored = ticketChangeFeed.subscribe("dead-letter-test", event -> {
+			if (event.getTicketId() == ticketId) {
+				throw new IllegalStateException("subscriber down");
+			}
+		})) {
+			TicketResponseDTO reply = ticketResponseService.createTicketReply(ticketId, customerId, "CUSTOMER",
+					Collections.singletonMap("responseText", "dead letter"));
+			awaitEmptyOutbox();
+
+			List<TicketOutboxDeadLetter> deadLetters =
+					ticketOutboxDeadLetterRepository.findBySubscriberOrderByEventId("dead-letter-test");
+			assertEquals(1, deadLetters.size());
+			assertEquals(TicketOutboxEvent.Type.REPLY_CREATED, deadLetters.get(0).getChangeType());
+			assertEquals(reply.getResponseId(), deadLetters.get(0).getResponseId());
+			assertTrue(deadLetters.get(0).getError().contains("subscriber down"));
+		}
+	}
+
+	@Test
+	void anotherInstanceCannotTakeTheRelayLeaseWhileItIsHeld() throws Exception {
+		awaitEmptyOutbox();
+		LocalDateTime now = LocalDateTime.now();
+		int claimed = transactionTemplate.execute(status -> ticketOutboxLeaseRepository.claim(
+				TicketOutbox.LEASE_NAME, "other-instance", now, now.plusMinutes(1)));
+		assertEquals(0, claimed);
+		assertEquals(1.0, meterRegistry.get(TicketOutbox.LEADER_METRIC).gauge().value());
+	}
+
+	@Test
+	void eventsCannotBeRecordedOutsideATransaction() {
+		assertThrows(IllegalTransactionStateException.class,
+				() -> ticketOutbox.record(TicketOutboxEvent.Type.TICKET_RESOLVED, 1, null, 1L));
+	}
+
+	private void awaitEmptyOutbox() throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		Long pending;
+		do {
+			pending = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM ticket_outbox", Long.class);
+			if (pending == 0) {
+				return;
+			}
+			Thread.sleep(20);
+		} while (System.nanoTime() < deadline);
+		assertEquals(0L, pending.longValue());
+	}
+}
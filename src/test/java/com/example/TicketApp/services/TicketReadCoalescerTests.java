@@ -0,0 +1,120 @@
+package com.example.TicketApp.services;
+
+import com.example.TicketApp.config.ReplicaRoutingContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TicketReadCoalescerTests {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final TicketReadCoalescer coalescer = new TicketReadCoalescer(meterRegistry);
+
+	@AfterEach
+	void tearDown() {
+		ReplicaRoutingContext.clear();
+	}
+
+	@Test
+	void concurrentCallersShareOneRead() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger reads = new AtomicInteger();
+		ExecutorService callers = Executors.newFixedThreadPool(8);
+		try {
+			Future<?>[] results = new Future<?>[8];
+			for (int i = 0; i < results.length; i++) {
+				results[i] = callers.submit(() -> coalescer.call("thread", 1, "", () -> {
+					reads.incrementAndGet();
+					started.countDown();
+					await(release);
+					return "replies";
+				}));
+			}
+			assertTrue(started.await(5, TimeUnit.SECONDS));
+			// Hold the read until every other caller has joined it
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+			while (joined() < 7 && System.nanoTime() < deadline) {
+				Thread.sleep(10);
+			}
+			release.countDown();
+			for (Future<?> result : results) {
+				assertEquals("replies", result.get(5, TimeUnit.SECONDS));
+			}
+		} finally {
+			callers.shutdownNow();
+		}
+		assertEquals(1, reads.get());
+		assertEquals(7.0, joined());
+	}
+
+	@Test
+	void differentArgumentsAndCompletedReadsAreNotShared() {
+		CompletableFuture<String> pending = new CompletableFuture<>();
+		CompletableFuture<String> first = coalescer.coalesce("ticket", 1, "0:10:null", () -> pending);
+		assertSame(first, coalescer.coalesce("ticket", 1, "0:10:null", CompletableFuture::new));
+		assertNotSame(first, coalescer.coalesce("ticket", 1, "1:10:null", CompletableFuture::new));
+		assertNotSame(first, coalescer.coalesce("ticket", 2, "0:10:null", CompletableFuture::new));
+
+		pending.complete("done");
+		assertEquals("done", first.join());
+		assertNotSame(first, coalescer.coalesce("ticket", 1, "0:10:null", CompletableFuture::new));
+	}
+
+	@Test
+	void aWriteDetachesTheInFlightRead() {
+		CompletableFuture<String> pending = new CompletableFuture<>();
+		CompletableFuture<String> before = coalescer.coalesce("ticket", 1, "", () -> pending);
+
+		coalescer.invalidate(1);
+		CompletableFuture<String> after = coalescer.coalesce("ticket", 1, "", () -> CompletableFuture.completedFuture("fresh"));
+		assertNotSame(before, after);
+		assertEquals("fresh", after.join());
+
+		pending.complete("stale");
+		assertEquals("stale", before.join());
+	}
+
+	@Test
+	void callersPinnedToThePrimaryDoNotJoinOtherReads() {
+		CompletableFuture<String> replicaRead = coalescer.coalesce("ticket", 1, "", CompletableFuture::new);
+		ReplicaRoutingContext.requirePrimary();
+		assertNotSame(replicaRead, coalescer.coalesce("ticket", 1, "", CompletableFuture::new));
+	}
+
+	@Test
+	void failuresReachEveryCallerUnwrapped() {
+		assertThrows(IllegalArgumentException.class, () -> coalescer.call("ticket", 1, "", () -> {
+			throw new IllegalArgumentException("Ticket not found");
+		}));
+		assertEquals("again", coalescer.call("ticket", 1, "", () -> "again"));
+	}
+
+	private double joined() {
+		Counter counter = meterRegistry.find(TicketReadCoalescer.METRIC_NAME).tag("role", "joined").counter();
+		return counter == null ? 0 : counter.count();
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,168 @@
+package com.example.TicketApp.services;
+
+import com.example.TicketApp.repository.TicketRepository;
+import com.example.TicketApp.repository.TicketResponseRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Indexing, participant filtering and rebuilds against a real Lucene index in a temporary directory. The database
+ * side is mocked, so a test can act on the index while a rebuild is reading its rows.
+ */
+class TicketSearchIndexTests {
+
+	private static final long CUSTOMER = 1;
+	private static final long AGENT = 2;
+	private static final long STRANGER = 3;
+	private static final LocalDateTime CREATED = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+	@TempDir
+	Path indexDir;
+
+	private final TicketRepository ticketRepository = mock(TicketRepository.class);
+	private final TicketResponseRepository ticketResponseRepository = mock(TicketResponseRepository.class);
+	private final TicketAccessService ticketAccessService = mock(TicketAccessService.class);
+	private TicketSearchIndex index;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		when(ticketAccessService.findParticipants(anyLong()))
+				.thenReturn(Optional.of(new TicketAccessService.Participants(CUSTOMER, AGENT)));
+		index = new TicketSearchIndex(ticketRepository, ticketResponseRepository, ticketAccessService,
+				indexDir.resolve("index").toString(), 10);
+		index.open();
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		index.close();
+	}
+
+	@Test
+	void ticketsAndRepliesAreFoundByTheirParticipantsOnly() {
+		index.indexTicket(10, "printer jammed on floor two", CUSTOMER, AGENT, CREATED);
+		index.indexReply(100, 10, "replaced the printer drum", CREATED);
+
+		awaitHits(CUSTOMER, "printer", 2);
+		assertEquals(2, hits(AGENT, "printer"));
+		assertEquals(0, hits(STRANGER, "printer"));
+		assertEquals(1, hits(CUSTOMER, "drum"));
+	}
+
+	@Test
+	void removedReplyIsNoLongerFound() {
+		index.indexReply(100, 10, "replaced the printer drum", CREATED);
+		awaitHits(CUSTOMER, "drum", 1);
+
+		index.removeReply(100);
+		awaitHits(CUSTOMER, "drum", 0);
+	}
+
+	@Test
+	void rebuildReplacesTheIndexWithTheDatabaseRows() throws Exception {
+		index.indexTicket(99, "orphaned ticket", CUSTOMER, AGENT, CREATED);
+		awaitHits(CUSTOMER, "orphaned", 1);
+		ticketRows(ticketRow(10, "printer jammed"));
+		replyRows(replyRow(100, 10, "replaced the printer drum"));
+
+		index.rebuild();
+
+		assertEquals(0, hits(CUSTOMER, "orphaned"));
+		assertEquals(2, hits(CUSTOMER, "printer"));
+		assertEquals(0, hits(STRANGER, "printer"));
+	}
+
+	@Test
+	void searchesKeepTheOldIndexUntilTheRebuildIsDone() throws Exception {
+		index.indexTicket(99, "orphaned ticket", CUSTOMER, AGENT, CREATED);
+		awaitHits(CUSTOMER, "orphaned", 1);
+		List<Long> duringRebuild = new ArrayList<>();
+		when(ticketRepository.findIndexRowsAfter(eq(0L), any())).thenAnswer(invocation -> {
+			// Several refresh intervals pass while the rebuild reads
+			Thread.sleep(100);
+			duringRebuild.add(hits(CUSTOMER, "orphaned"));
+			return Collections.singletonList(ticketRow(10, "printer jammed"));
+		});
+
+		index.rebuild();
+
+		assertEquals(Collections.singletonList(1L), duringRebuild);
+		assertEquals(0, hits(CUSTOMER, "orphaned"));
+	}
+
+	@Test
+	void liveWritesDuringARebuildAreKeptAndDeletedRepliesDoNotComeBack() throws Exception {
+		ticketRows(ticketRow(10, "printer jammed"));
+		when(ticketResponseRepository.findIndexRowsAfter(eq(0L), any())).thenAnswer(invocation -> {
+			// Committed while the rebuild holds rows it already read
+			index.indexTicket(11, "scanner offline", CUSTOMER, AGENT, CREATED);
+			index.removeReply(100);
+			List<Object[]> rows = new ArrayList<>();
+			rows.add(replyRow(100, 10, "replaced the printer drum"));
+			rows.add(replyRow(101, 10, "printer works again"));
+			return rows;
+		});
+
+		index.rebuild();
+
+		assertEquals(1, hits(CUSTOMER, "scanner"));
+		assertEquals(0, hits(CUSTOMER, "drum"));
+		assertEquals(1, hits(CUSTOMER, "works"));
+	}
+
+	private void ticketRows(Object[] row) {
+		when(ticketRepository.findIndexRowsAfter(eq(0L), any())).thenReturn(Collections.singletonList(row));
+	}
+
+	private void replyRows(Object[] row) {
+		when(ticketResponseRepository.findIndexRowsAfter(eq(0L), any())).thenReturn(Collections.singletonList(row));
+	}
+
+	private static Object[] ticketRow(long ticketId, String description) {
+		return new Object[]{ticketId, description, CUSTOMER, AGENT, CREATED};
+	}
+
+	private static Object[] replyRow(long responseId, long ticketId, String text) {
+		return new Object[]{responseId, ticketId, text, CUSTOMER, AGENT, CREATED};
+	}
+
+	private long hits(long userId, String text) {
+		return index.search(userId, text, 0, 10).getTotalElements();
+	}
+
+	private void awaitHits(long userId, String text, long expected) {
+		await(() -> hits(userId, text) == expected);
+		assertEquals(expected, hits(userId, text));
+	}
+
+	private static void await(BooleanSupplier condition) {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+			try {
+				Thread.sleep(10);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+		assertTrue(condition.getAsBoolean(), "Condition not met within 5s");
+	}
+}
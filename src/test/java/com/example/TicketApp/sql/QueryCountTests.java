@@ -0,0 +1,231 @@
+package com.example.TicketApp.sql;
+
+import com.example.TicketApp.config.SqlStatementCounter;
+import com.example.TicketApp.loadtest.LoadTestDataSeeder;
+import com.example.TicketApp.services.TicketExportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.TicketApp.sql.SqlStatementAssertions.assertMaxSelects;
+import static com.example.TicketApp.sql.SqlStatementAssertions.assertMaxStatements;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement budgets per endpoint, checked on a small seeded embedded database. A new lazy load or N+1 pushes an
+ * endpoint over its budget and fails the build. Budgets assume a cold second-level cache. Statements that async
+ * endpoints run on the DB executor are counted for the calling thread.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:querycount;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+		"ticket.search.index-dir=target/querycount-index",
+		"loadtest.seed.customers=20",
+		"loadtest.seed.agents=3",
+		"loadtest.seed.tickets=200",
+		"loadtest.seed.replies-per-ticket=30"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("loadtest")
+class QueryCountTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private LoadTestDataSeeder data;
+
+	@Autowired
+	private TicketExportService ticketExportService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void ticketSearchIsPageAndCount() throws Exception {
+		long agentId = data.agentIdForTicket(1);
+		// user check, page, count
+		assertMaxSelects(3, () -> dispatch(get("/ticket/search")
+						.param("userId", String.valueOf(agentId)).param("role", "AGENT")
+						.param("status", "ALL").param("category", "ALL"))
+				.andExpect(status().isOk()));
+	}
+
+	@Test
+	void ticketCountIsOneAggregate() throws Exception {
+		assertMaxSelects(1, () -> dispatch(get("/ticket/count/search")
+						.param("userId", String.valueOf(data.agentIdForTicket(2))).param("role", "AGENT")
+						.param("category", "ALL"))
+				.andExpect(status().isOk()));
+	}
+
+	@Test
+	void ticketWithReplyPageDoesNotWalkTheThread() throws Exception {
+		long ticketId = 3;
+		// participants, version, ticket, one reply page
+		assertMaxSelects(4, () -> dispatch(get("/ticket/search/" + data.customerIdForTicket(ticketId) + "/" + ticketId))
+				.andExpect(status().isOk()));
+	}
+
+	@Test
+	void replyThreadIsOneQuery() throws Exception {
+		long ticketId = 4;
+		// version, thread
+		assertMaxStatements(2, () -> dispatch(get("/ticket/" + ticketId + "/response")
+						.param("userId", String.valueOf(data.customerIdForTicket(ticketId))))
+				.andExpect(status().isOk()));
+	}
+
+	@Test
+	void unchangedTicketIsOneAggregateAndNoBody() throws Exception {
+		long ticketId = 6;
+		String path = "/ticket/search/" + data.customerIdForTicket(ticketId) + "/" + ticketId;
+		String etag = dispatch(get(path)).andExpect(status().isOk()).andReturn().getResponse().getHeader("ETag");
+		assertNotNull(etag);
+
+		// version only
+		assertMaxStatements(1, () -> dispatch(get(path).header("If-None-Match", etag))
+				.andExpect(status().isNotModified())
+				.andExpect(content().string("")));
+	}
+
+	@Test
+	void changedThreadGetsANewETag() throws Exception {
+		long ticketId = 7;
+		long customerId = data.customerIdForTicket(ticketId);
+		String path = "/ticket/" + ticketId + "/response";
+		String etag = dispatch(get(path).param("userId", String.valueOf(customerId)))
+				.andExpect(status().isOk()).andReturn().getResponse().getHeader("ETag");
+		dispatch(get(path).param("userId", String.valueOf(customerId)).header("If-None-Match", etag))
+				.andExpect(status().isNotModified());
+
+		mockMvc.perform(post("/ticket-response/" + ticketId)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"user_id\":" + customerId + ",\"role\":\"CUSTOMER\",\"replyData\":{\"responseText\":\"again\"}}"))
+				.andExpect(status().isCreated());
+
+		String changed = dispatch(get(path).param("userId", String.valueOf(customerId)).header("If-None-Match", etag))
+				.andExpect(status().isOk()).andReturn().getResponse().getHeader("ETag");
+		assertNotEquals(etag, changed);
+	}
+
+	@Test
+	void deletedReplyMovesLastModified() throws Exception {
+		long ticketId = 11;
+		long customerId = data.customerIdForTicket(ticketId);
+		String path = "/ticket/" + ticketId + "/response";
+		String lastModified = dispatch(get(path).param("userId", String.valueOf(customerId)))
+				.andExpect(status().isOk()).andReturn().getResponse().getHeader("Last-Modified");
+		assertNotNull(lastModified);
+
+		Long responseId = jdbcTemplate.queryForObject(
+				"SELECT MIN(response_id) FROM ticket_responses WHERE ticket_id = ? AND user_id = ?",
+				Long.class, ticketId, customerId);
+		mockMvc.perform(delete("/ticket-response/" + ticketId + "/response/" + responseId)
+						.param("userId", String.valueOf(customerId)))
+				.andExpect(status().isOk());
+
+		// A client that only sends If-Modified-Since must see the thread change
+		dispatch(get(path).param("userId", String.valueOf(customerId)).header("If-Modified-Since", lastModified))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void loginIsOneLookup() throws Exception {
+		assertMaxStatements(1, () -> dispatch(post("/login")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"email\":\"customer0@load.test\",\"password\":\"password\"}"))
+				.andExpect(status().isOk()));
+	}
+
+	@Test
+	void bookingValidationReadsOnlyIds() throws Exception {
+		// user check, booking owner; no bookings are seeded so this is a 404
+		assertMaxStatements(2, () -> dispatch(get("/booking/1/validate").param("userId", "1"))
+				.andExpect(status().isNotFound()));
+	}
+
+	@Test
+	void replyCreationCostDoesNotDependOnThreadLength() throws Exception {
+		long shortTicketId = 12;
+		long longTicketId = 5;
+		// Seeded with 30 replies each; empty one of them
+		jdbcTemplate.update("DELETE FROM ticket_responses WHERE ticket_id = ?", shortTicketId);
+
+		List<String> onShortThread = replyStatements(shortTicketId);
+		List<String> onLongThread = replyStatements(longTicketId);
+
+		// participants, insert, outbox insert, ticket row, updated_at update, DTO read, plus pooled id fetches
+		assertMaxStatements(8, () -> postReply(longTicketId));
+		assertEquals(onShortThread, onLongThread);
+	}
+
+	@Test
+	void exportIsTwoCursorsWhateverItsSize() throws Exception {
+		long agentId = data.agentIdForTicket(1);
+		TicketExportService.ExportQuery query = ticketExportService.prepare(agentId, "AGENT", "ALL", "ALL");
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		// tickets cursor, replies cursor
+		assertMaxStatements(2, () -> ticketExportService.write(query, true, TicketExportService.Format.NDJSON, out));
+
+		Long tickets = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tickets WHERE agent_id = ?", Long.class, agentId);
+		String[] lines = new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n");
+		assertEquals(tickets.longValue(), lines.length);
+	}
+
+	private void postReply(long ticketId) throws Exception {
+		mockMvc.perform(post("/ticket-response/" + ticketId)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"user_id\":" + data.customerIdForTicket(ticketId)
+								+ ",\"role\":\"CUSTOMER\",\"replyData\":{\"responseText\":\"hi\"}}"))
+				.andExpect(status().isCreated());
+	}
+
+	// The SQL a reply post sends, leaving out id sequence calls, which the pooled generators only make every 50 rows
+	private List<String> replyStatements(long ticketId) {
+		List<String> statements = new ArrayList<>();
+		for (SqlStatementCounter.Statement statement : SqlStatementCounter.capture(() -> {
+			try {
+				postReply(ticketId);
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		})) {
+			String sql = statement.getSql().toLowerCase();
+			if (!sql.contains("next value for") && !sql.contains("nextval(")) {
+				statements.add(statement.getSql());
+			}
+		}
+		assertFalse(statements.isEmpty());
+		return statements;
+	}
+
+	// Read endpoints answer through a DeferredResult; waits for it and dispatches the response
+	private ResultActions dispatch(MockHttpServletRequestBuilder builder) throws Exception {
+		MvcResult started = mockMvc.perform(builder).andExpect(request().asyncStarted()).andReturn();
+		return mockMvc.perform(asyncDispatch(started));
+	}
+}
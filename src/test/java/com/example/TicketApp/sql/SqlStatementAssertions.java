@@ -0,0 +1,41 @@
+package com.example.TicketApp.sql;
+
+import com.example.TicketApp.config.SqlStatementCounter;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test-side API over {@link SqlStatementCounter}:
+ * <pre>
+ * assertMaxSelects(2, () -> mockMvc.perform(get("/ticket/search")...));
+ * </pre>
+ * Works for anything that runs on the calling thread, including MockMvc requests.
+ */
+public final class SqlStatementAssertions {
+
+	private SqlStatementAssertions() {
+	}
+
+	public static SqlStatementCounter.Counts count(Action action) throws Exception {
+		SqlStatementCounter.Counts before = SqlStatementCounter.snapshot();
+		action.run();
+		return SqlStatementCounter.snapshot().minus(before);
+	}
+
+	public static SqlStatementCounter.Counts assertMaxSelects(long max, Action action) throws Exception {
+		SqlStatementCounter.Counts counts = count(action);
+		assertTrue(counts.getSelects() <= max, "Expected at most " + max + " selects but got " + counts);
+		return counts;
+	}
+
+	public static SqlStatementCounter.Counts assertMaxStatements(long max, Action action) throws Exception {
+		SqlStatementCounter.Counts counts = count(action);
+		assertTrue(counts.getTotal() <= max, "Expected at most " + max + " statements but got " + counts);
+		return counts;
+	}
+
+	@FunctionalInterface
+	public interface Action {
+		void run() throws Exception;
+	}
+}